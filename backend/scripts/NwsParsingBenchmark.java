@@ -0,0 +1,101 @@
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.arrowheadnavigator.service.NwsGridpointParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+/**
+ * Allocation and time per parse of recorded weather.gov fixtures, comparing the
+ * streaming gridpoint parser with binding the whole document into a Jackson tree
+ * and reducing it afterwards. Run through benchmark-nws-parsing.sh.
+ */
+public class NwsParsingBenchmark {
+
+    private static final int HOURS = 168;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    interface Parse {
+        HourlyPrecipitation run(byte[] document) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path fixtures = Path.of(args.length > 0 ? args[0] : "src/test/resources/nws");
+        NwsGridpointParser streaming = new NwsGridpointParser();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (var files = Files.list(fixtures)) {
+            for (Path fixture : files.filter(f -> f.getFileName().toString().startsWith("gridpoint-")).sorted().toList()) {
+                byte[] document = Files.readAllBytes(fixture);
+                System.out.printf("%s (%d KB)%n", fixture.getFileName(), document.length / 1024);
+                measure("streaming", document,
+                        d -> streaming.parseGridpoint(new ByteArrayInputStream(d), NwsGridpointParser.UNANCHORED, HOURS));
+                measure("tree", document, d -> reduceTree(objectMapper.readTree(d)));
+            }
+        }
+    }
+
+    private static void measure(String name, byte[] document, Parse parse) throws IOException {
+        double checksum = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            checksum += parse.run(document).getRainfallInches()[0];
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += parse.run(document).getRainfallInches()[0];
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        System.out.printf("  %-10s %10.1f us/op %12d B/op   (checksum %.3f)%n",
+                name, elapsed / 1_000.0 / ITERATIONS, allocated / ITERATIONS, checksum);
+    }
+
+    /**
+     * The same reduction done over a fully bound document.
+     */
+    private static HourlyPrecipitation reduceTree(JsonNode root) {
+        JsonNode properties = root.path("properties");
+        long startHour = epochHour(properties.path("validTimes").asText());
+        double[] rainfall = new double[HOURS];
+        double[] probability = new double[HOURS];
+        fill(properties.path("quantitativePrecipitation"), startHour, rainfall, true);
+        fill(properties.path("probabilityOfPrecipitation"), startHour, probability, false);
+        return HourlyPrecipitation.builder()
+                .startEpochHour(startHour)
+                .rainfallInches(rainfall)
+                .probabilityPercent(probability)
+                .build();
+    }
+
+    private static void fill(JsonNode layer, long startHour, double[] target, boolean amount) {
+        for (JsonNode value : layer.path("values")) {
+            if (value.path("value").isNull()) {
+                continue;
+            }
+            String[] interval = value.path("validTime").asText().split("/");
+            int hours = (int) java.time.Duration.parse(interval[1]).toHours();
+            long offset = epochHour(interval[0]) - startHour;
+            double perHour = amount ? value.path("value").asDouble() / 25.4 / hours : value.path("value").asDouble();
+            for (long h = Math.max(offset, 0); h < Math.min(offset + hours, target.length); h++) {
+                target[(int) h] = perHour;
+            }
+        }
+    }
+
+    private static long epochHour(String validTime) {
+        return OffsetDateTime.parse(validTime.split("/")[0]).toEpochSecond() / 3600;
+    }
+}
@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# Compare allocation and time per parse of the recorded weather.gov gridpoint fixtures
+# between the streaming parser and full tree binding.
+# Run from the backend directory.
+set -euo pipefail
+
+mvn -q -B compile dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+CLASSPATH="target/classes:$(cat target/benchmark.classpath)"
+
+java -cp "${CLASSPATH}" scripts/NwsParsingBenchmark.java src/test/resources/nws
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Measure time to first successful GET /api/routes and resident memory for each
+# startup variant. Build the variants first:
+#   mvn -Pfast-start package        (plain jar, AOT + CDS thin jar)
+#   mvn -Pnative native:compile     (optional native image)
+# Run from the backend directory. Variants whose artifacts are missing are skipped.
+set -euo pipefail
+
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/routes"
+VERSION=0.0.1-SNAPSHOT
+TARGET="$(pwd)/target"
+
+measure() {
+    local name=$1
+    shift
+    local start end pid rss
+
+    start=$(date +%s%N)
+    "$@" --server.port="${PORT}" > "${TARGET}/startup-${name}.log" 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "${URL}"; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "${name}: failed to start, see ${TARGET}/startup-${name}.log"
+            return
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/${pid}/status")
+    printf '%-12s %8d ms %8d MB\n' "${name}" $(( (end - start) / 1000000 )) $(( rss / 1024 ))
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+}
+
+printf '%-12s %11s %11s\n' "variant" "first req" "RSS"
+
+if [[ -f "${TARGET}/arrowhead-navigator-${VERSION}.jar" ]]; then
+    measure jar java -jar "${TARGET}/arrowhead-navigator-${VERSION}.jar"
+fi
+
+if [[ -f "${TARGET}/fast-start/app-cds.jsa" ]]; then
+    (cd "${TARGET}/fast-start" && measure aot-cds java -XX:SharedArchiveFile=app-cds.jsa \
+        -Dspring.aot.enabled=true -jar "arrowhead-navigator-${VERSION}-thin.jar")
+fi
+
+if [[ -x "${TARGET}/arrowhead-navigator" ]]; then
+    measure native "${TARGET}/arrowhead-navigator"
+fi
@@ -1,11 +1,15 @@
 package com.arrowheadnavigator;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Main entry point for the Arrowhead Navigator application.
  * This application helps businesses identify weather-related risks for delivery routes.
@@ -20,10 +24,16 @@ public class ArrowheadNavigatorApplication {
 
     /**
      * RestTemplate bean for making HTTP requests to external APIs.
+     * Connections and reads time out with the weather.gov call, so a hung upstream
+     * cannot hold on to one of the few threads allowed to call it.
      * @return Configured RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${weather.upstream.timeout-ms:2000}") long timeoutMillis) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(timeoutMillis))
+                .setReadTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package com.arrowheadnavigator.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Two-tier cache of per-cell values.
+ * Reads are served from an in-process near cache; misses fall through to the shared
+ * tier when one is configured. Writes go to both tiers and tell the other replicas to
+ * drop their near copies. Without a shared tier this is a plain in-process cache.
+ * If the shared tier is unreachable, the near cache keeps serving what it has.
+ */
+@Slf4j
+public class CellCache<T> {
+
+    // Claim handed out when there is no shared lock to hold
+    private static final String UNSHARED_CLAIM = "";
+
+    private final String region;
+    private final JavaType valueType;
+    private final ObjectMapper objectMapper;
+    private final SharedCacheStore sharedStore;
+    private final String nodeId;
+    private final long nearTtlMillis;
+    private final Duration sharedTtl;
+
+    private final Map<Long, NearEntry<T>> near = new ConcurrentHashMap<>();
+    private final List<LongConsumer> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    CellCache(String region, JavaType valueType, ObjectMapper objectMapper, SharedCacheStore sharedStore,
+              String nodeId, Duration nearTtl, Duration sharedTtl) {
+        this.region = region;
+        this.valueType = valueType;
+        this.objectMapper = objectMapper;
+        this.sharedStore = sharedStore;
+        this.nodeId = nodeId;
+        this.nearTtlMillis = nearTtl.toMillis();
+        this.sharedTtl = sharedTtl;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Register a listener called with a cell's key whenever it is invalidated here,
+     * or changed or invalidated on another replica.
+     * Lets values derived from a cell be dropped along with it.
+     */
+    public void addInvalidationListener(LongConsumer listener) {
+        invalidationListeners.add(listener);
+    }
+
+    /**
+     * Whether there is a shared tier, so a near cache miss may still be served from it.
+     */
+    public boolean isShared() {
+        return sharedStore != null;
+    }
+
+    /**
+     * Get the near copy of a cell if it can be served without checking the shared tier, or null.
+     * Never does I/O, so it is safe to call on threads that must not block.
+     */
+    public Entry<T> getNear(long cellKey) {
+        NearEntry<T> nearEntry = near.get(cellKey);
+        if (nearEntry != null && (sharedStore == null || System.currentTimeMillis() < nearEntry.expiresAt())) {
+            return nearEntry.entry();
+        }
+        return null;
+    }
+
+    /**
+     * Get the cached value for a cell, or null if no tier has it.
+     * Reads the shared tier on a near cache miss, so this may block on it.
+     */
+    public Entry<T> get(long cellKey) {
+        Entry<T> nearEntry = getNear(cellKey);
+        if (nearEntry != null) {
+            return nearEntry;
+        }
+
+        // An expired near copy is still better than nothing if the shared tier has lost the cell
+        NearEntry<T> expired = near.get(cellKey);
+        Entry<T> shared = getShared(cellKey);
+        return shared != null ? shared : (expired != null ? expired.entry() : null);
+    }
+
+    /**
+     * Read a cell straight from the shared tier, refreshing the near copy.
+     * Returns null if there is no shared tier or it has nothing for the cell.
+     */
+    public Entry<T> getShared(long cellKey) {
+        if (sharedStore == null) {
+            return null;
+        }
+        try {
+            String json = sharedStore.get(valueKey(cellKey));
+            if (json == null) {
+                return null;
+            }
+            JsonNode node = objectMapper.readTree(json);
+            T value = objectMapper.convertValue(node.get("value"), valueType);
+            Entry<T> entry = new Entry<>(value, node.get("fetchedAt").asLong());
+            putNear(cellKey, entry);
+            return entry;
+        } catch (Exception e) {
+            log.debug("Shared cache read failed for {}:{}: {}", region, cellKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a value for a cell in both tiers.
+     */
+    public void put(long cellKey, T value, long fetchedAt) {
+        Entry<T> entry = new Entry<>(value, fetchedAt);
+        putNear(cellKey, entry);
+
+        if (sharedStore == null) {
+            return;
+        }
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("fetchedAt", fetchedAt);
+            node.set("value", objectMapper.valueToTree(value));
+            sharedStore.put(valueKey(cellKey), objectMapper.writeValueAsString(node), sharedTtl);
+            sharedStore.publish(invalidationMessage(cellKey));
+        } catch (Exception e) {
+            log.debug("Shared cache write failed for {}:{}: {}", region, cellKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove a cell from every tier on every replica.
+     */
+    public void invalidate(long cellKey) {
+        near.remove(cellKey);
+        notifyInvalidated(cellKey);
+
+        if (sharedStore == null) {
+            return;
+        }
+        try {
+            sharedStore.delete(valueKey(cellKey));
+            sharedStore.publish(invalidationMessage(cellKey));
+        } catch (Exception e) {
+            log.debug("Shared cache invalidation failed for {}:{}: {}", region, cellKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Claim the right to fetch a cell from upstream across the cluster.
+     * Always succeeds without a shared tier, or when the shared tier is unreachable.
+     *
+     * @return A token to release the claim with, or null if another replica holds it
+     */
+    public String tryLock(long cellKey, Duration ttl) {
+        if (sharedStore == null) {
+            return UNSHARED_CLAIM;
+        }
+        try {
+            return sharedStore.tryLock(lockKey(cellKey), ttl);
+        } catch (Exception e) {
+            return UNSHARED_CLAIM;
+        }
+    }
+
+    /**
+     * Release a claim taken with {@link #tryLock}.
+     * A claim that outlived its lock leaves the lock alone, as it may now belong to another replica.
+     */
+    public void unlock(long cellKey, String token) {
+        if (sharedStore == null || UNSHARED_CLAIM.equals(token)) {
+            return;
+        }
+        try {
+            sharedStore.unlock(lockKey(cellKey), token);
+        } catch (Exception e) {
+            log.debug("Shared cache unlock failed for {}:{}: {}", region, cellKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Copy of every entry in the near cache, for snapshots.
+     */
+    public Map<Long, Entry<T>> nearEntries() {
+        Map<Long, Entry<T>> entries = new HashMap<>();
+        near.forEach((cellKey, nearEntry) -> entries.put(cellKey, nearEntry.entry()));
+        return entries;
+    }
+
+    /**
+     * Seed the near cache without touching the shared tier, e.g. from a snapshot.
+     */
+    public void restoreNear(long cellKey, Entry<T> entry) {
+        putNear(cellKey, entry);
+    }
+
+    /**
+     * Drop the near copy of a cell after another replica changed it.
+     */
+    void evictNear(long cellKey) {
+        near.remove(cellKey);
+        notifyInvalidated(cellKey);
+    }
+
+    private void notifyInvalidated(long cellKey) {
+        for (LongConsumer listener : invalidationListeners) {
+            try {
+                listener.accept(cellKey);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener failed for {}:{}: {}", region, cellKey, e.getMessage());
+            }
+        }
+    }
+
+    private void putNear(long cellKey, Entry<T> entry) {
+        near.put(cellKey, new NearEntry<>(entry, System.currentTimeMillis() + nearTtlMillis));
+    }
+
+    private String valueKey(long cellKey) {
+        return "arrowhead:" + region + ":" + cellKey;
+    }
+
+    private String lockKey(long cellKey) {
+        return "arrowhead:" + region + ":" + cellKey + ":lock";
+    }
+
+    private String invalidationMessage(long cellKey) {
+        return region + ":" + cellKey + ":" + nodeId;
+    }
+
+    /**
+     * A cached value and when it was fetched from upstream.
+     */
+    public record Entry<T>(T value, long fetchedAt) {
+    }
+
+    // Near copies are re-checked against the shared tier after a short time, in case
+    // an invalidation message was missed
+    private record NearEntry<T>(Entry<T> entry, long expiresAt) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.arrowheadnavigator.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the per-cell caches used by the weather and risk services, and routes
+ * invalidation messages from other replicas to them.
+ * The shared tier is optional: set cache.shared.type to local or redis to enable it.
+ */
+@Component
+public class CellCacheFactory {
+
+    private final ObjectMapper objectMapper;
+    private final SharedCacheStore sharedStore;
+    private final Duration nearTtl;
+    private final Duration sharedTtl;
+
+    // Identifies this replica so it can ignore its own invalidation messages
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, CellCache<?>> caches = new ConcurrentHashMap<>();
+
+    public CellCacheFactory(
+            ObjectMapper objectMapper,
+            ObjectProvider<SharedCacheStore> sharedStore,
+            @Value("${cache.near.ttl-seconds:30}") long nearTtlSeconds,
+            @Value("${cache.shared.ttl-seconds:3600}") long sharedTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.sharedStore = sharedStore.getIfAvailable();
+        this.nearTtl = Duration.ofSeconds(nearTtlSeconds);
+        this.sharedTtl = Duration.ofSeconds(sharedTtlSeconds);
+
+        if (this.sharedStore != null) {
+            this.sharedStore.subscribe(this::onInvalidation);
+        }
+    }
+
+    /**
+     * Create a cache for single values of the given type.
+     */
+    public <T> CellCache<T> create(String region, Class<T> valueType) {
+        return create(region, objectMapper.constructType(valueType));
+    }
+
+    /**
+     * Create a cache for lists of the given element type.
+     */
+    public <T> CellCache<List<T>> createList(String region, Class<T> elementType) {
+        return create(region, objectMapper.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    /**
+     * Whether caches created here are backed by a shared tier.
+     */
+    public boolean isShared() {
+        return sharedStore != null;
+    }
+
+    private <T> CellCache<T> create(String region, JavaType valueType) {
+        CellCache<T> cache = new CellCache<>(region, valueType, objectMapper, sharedStore, nodeId, nearTtl, sharedTtl);
+        caches.put(region, cache);
+        return cache;
+    }
+
+    /**
+     * Handle a "region:cellKey:nodeId" message from the shared tier.
+     */
+    private void onInvalidation(String message) {
+        String[] parts = message.split(":");
+        if (parts.length != 3 || parts[2].equals(nodeId)) {
+            return;
+        }
+        CellCache<?> cache = caches.get(parts[0]);
+        if (cache != null) {
+            cache.evictNear(Long.parseLong(parts[1]));
+        }
+    }
+}
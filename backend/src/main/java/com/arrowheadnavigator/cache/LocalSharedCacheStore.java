@@ -0,0 +1,78 @@
+package com.arrowheadnavigator.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the shared cache tier.
+ * Behaves like the Redis store, so several CellCacheFactory instances sharing one
+ * of these can stand in for a cluster in development and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.shared.type", havingValue = "local")
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+    private final Map<String, StoredValue> values = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String get(String key) {
+        StoredValue stored = values.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (stored.isExpired()) {
+            values.remove(key, stored);
+            return null;
+        }
+        return stored.value();
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        values.put(key, new StoredValue(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void delete(String key) {
+        values.remove(key);
+    }
+
+    @Override
+    public String tryLock(String key, Duration ttl) {
+        StoredValue lock = new StoredValue(UUID.randomUUID().toString(), System.currentTimeMillis() + ttl.toMillis());
+        StoredValue current = values.compute(key, (k, existing) ->
+                existing == null || existing.isExpired() ? lock : existing);
+        return current == lock ? lock.value() : null;
+    }
+
+    @Override
+    public void unlock(String key, String token) {
+        values.computeIfPresent(key, (k, existing) -> existing.value().equals(token) ? null : existing);
+    }
+
+    @Override
+    public void publish(String message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private record StoredValue(String value, long expiresAt) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.arrowheadnavigator.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Shared cache tier backed by Redis.
+ * Invalidation messages go out over a Redis pub/sub channel.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.shared.type", havingValue = "redis")
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    private static final ChannelTopic INVALIDATION_TOPIC = new ChannelTopic("arrowhead:cache:invalidate");
+
+    // Delete a lock only if it still holds the caller's token, in one round trip
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisSharedCacheStore(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = cacheInvalidationListenerContainer;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(key);
+    }
+
+    @Override
+    public String tryLock(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, ttl)) ? token : null;
+    }
+
+    @Override
+    public void unlock(String key, String token) {
+        redisTemplate.execute(RELEASE_LOCK, List.of(key), token);
+    }
+
+    @Override
+    public void publish(String message) {
+        redisTemplate.convertAndSend(INVALIDATION_TOPIC.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                INVALIDATION_TOPIC);
+    }
+}
@@ -0,0 +1,52 @@
+package com.arrowheadnavigator.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Cache tier shared by every backend replica.
+ * Values are stored as serialized strings; invalidation messages are broadcast
+ * to all replicas so they can drop their near-cache copies.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * Get a value, or null if it is missing or expired.
+     */
+    String get(String key);
+
+    /**
+     * Store a value that expires after the given time to live.
+     */
+    void put(String key, String value, Duration ttl);
+
+    /**
+     * Remove a value.
+     */
+    void delete(String key);
+
+    /**
+     * Try to take a short-lived lock, so only one replica fetches a value at a time.
+     *
+     * @return A token identifying this hold of the lock, or null if someone else holds it
+     */
+    String tryLock(String key, Duration ttl);
+
+    /**
+     * Release a lock taken with {@link #tryLock}, unless it has since expired and been
+     * taken by someone else.
+     *
+     * @param token The token returned when the lock was taken
+     */
+    void unlock(String key, String token);
+
+    /**
+     * Broadcast an invalidation message to every replica, including this one.
+     */
+    void publish(String message);
+
+    /**
+     * Register a listener for invalidation messages.
+     */
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,210 @@
+package com.arrowheadnavigator.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size, lock-free cache of waypoint risk scores.
+ * Each entry is a single long packing the waypoint's grid cell, the time bucket the
+ * score was computed in, and the score itself, stored in an open-addressing table that
+ * is either a plain long[] or a direct buffer outside the heap. Lookups and updates
+ * allocate nothing and take no locks: entries are read and written whole with
+ * compare-and-set, so a reader never sees half an update. Entries from an earlier time
+ * bucket are dead and are reused in place, so the table never needs sweeping. It is a
+ * cache, not a map: if a key's neighbourhood is full of live entries, one is overwritten.
+ * Cells are addressed by their {@link com.arrowheadnavigator.util.GeoCell} key.
+ */
+public class WaypointRiskCache {
+
+    public static final int MISSING = -1;
+
+    // Slots examined per lookup; 16 longs span two cache lines
+    private static final int PROBE_LENGTH = 16;
+
+    // Entry layout: occupied flag | 24-bit time bucket | 15-bit latitude index | 16-bit longitude index | 8-bit score
+    private static final long OCCUPIED = 1L << 63;
+    private static final int BUCKET_SHIFT = 39;
+    private static final long BUCKET_MASK = (1L << 24) - 1;
+    private static final int CELL_SHIFT = 8;
+    private static final int MAX_LAT_INDEX = (1 << 15) - 1;
+    private static final int MAX_LON_INDEX = (1 << 16) - 1;
+    private static final long SCORE_MASK = 0xFF;
+
+    private static final VarHandle ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle BUFFER = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final long[] heapSlots;
+    private final ByteBuffer offHeapSlots;
+    private final int mask;
+    private final long bucketMillis;
+
+    /**
+     * @param capacity     Number of slots, rounded up to a power of two; eight bytes each
+     * @param bucketMillis How long a score stays valid, counted in fixed buckets of wall-clock time
+     * @param offHeap      Keep the table in a direct buffer instead of on the heap
+     */
+    public WaypointRiskCache(int capacity, long bucketMillis, boolean offHeap) {
+        if (capacity < PROBE_LENGTH || capacity > 1 << 27) {
+            throw new IllegalArgumentException("Capacity must be between " + PROBE_LENGTH + " and " + (1 << 27));
+        }
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket length must be positive");
+        }
+
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = slots - 1;
+        this.bucketMillis = bucketMillis;
+        if (offHeap) {
+            this.heapSlots = null;
+            this.offHeapSlots = ByteBuffer.allocateDirect(slots * Long.BYTES).order(ByteOrder.nativeOrder());
+        } else {
+            this.heapSlots = new long[slots];
+            this.offHeapSlots = null;
+        }
+    }
+
+    /**
+     * Get the score cached for a cell in the current time bucket, or {@link #MISSING}.
+     */
+    public int get(long cellKey, long nowMillis) {
+        long key = key(cellKey, nowMillis);
+        if (key == 0) {
+            return MISSING;
+        }
+
+        int home = home(key);
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            long entry = load((home + i) & mask);
+            if (entry == 0) {
+                // Slots are claimed in probe order and never emptied, so the key is not further on
+                return MISSING;
+            }
+            if ((entry & ~SCORE_MASK) == key) {
+                return (int) (entry & SCORE_MASK);
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Cache the score for a cell in the current time bucket.
+     *
+     * @param score Score between 0 and 255
+     */
+    public void put(long cellKey, long nowMillis, int score) {
+        if (score < 0 || score > SCORE_MASK) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        long key = key(cellKey, nowMillis);
+        if (key == 0) {
+            return;
+        }
+
+        long bucket = key & (BUCKET_MASK << BUCKET_SHIFT);
+        long entry = key | score;
+        int home = home(key);
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            int slot = (home + i) & mask;
+            long current = load(slot);
+            // Retry a slot only while it still holds this key or something reusable
+            while (current == 0 || (current & ~SCORE_MASK) == key
+                    || (current & (BUCKET_MASK << BUCKET_SHIFT)) != bucket) {
+                if (compareAndSet(slot, current, entry)) {
+                    return;
+                }
+                current = load(slot);
+            }
+        }
+
+        // Every slot nearby holds another live score; take the home slot
+        store(home, entry);
+    }
+
+    /**
+     * Drop the score cached for a cell in the current time bucket.
+     * The entry is moved back a bucket rather than emptied, so it reads as dead
+     * without breaking the probe order other entries rely on.
+     */
+    public void invalidate(long cellKey, long nowMillis) {
+        long key = key(cellKey, nowMillis);
+        if (key == 0) {
+            return;
+        }
+
+        long bucket = key & (BUCKET_MASK << BUCKET_SHIFT);
+        long previousBucket = (bucket - (1L << BUCKET_SHIFT)) & (BUCKET_MASK << BUCKET_SHIFT);
+        int home = home(key);
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            int slot = (home + i) & mask;
+            long current = load(slot);
+            if (current == 0) {
+                return;
+            }
+            // Another writer may update the score meanwhile; that entry must die too
+            while ((current & ~SCORE_MASK) == key) {
+                long dead = (current & ~(BUCKET_MASK << BUCKET_SHIFT)) | previousBucket;
+                if (compareAndSet(slot, current, dead)) {
+                    break;
+                }
+                current = load(slot);
+            }
+        }
+    }
+
+    /**
+     * Number of slots in the table.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Entry with no score for a cell, or 0 if the cell is outside the range the
+     * entry layout can hold.
+     */
+    private long key(long cellKey, long nowMillis) {
+        int latIndex = (int) (cellKey >> 32);
+        int lonIndex = (int) cellKey;
+        if (latIndex < 0 || latIndex > MAX_LAT_INDEX || lonIndex < 0 || lonIndex > MAX_LON_INDEX) {
+            return 0;
+        }
+
+        long bucket = (nowMillis / bucketMillis) & BUCKET_MASK;
+        return OCCUPIED
+                | bucket << BUCKET_SHIFT
+                | ((long) latIndex << 16 | lonIndex) << CELL_SHIFT;
+    }
+
+    /**
+     * Home slot for a key, scrambled so neighbouring cells do not crowd one probe window.
+     */
+    private int home(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private long load(int slot) {
+        return heapSlots != null
+                ? (long) ARRAY.getAcquire(heapSlots, slot)
+                : (long) BUFFER.getAcquire(offHeapSlots, slot * Long.BYTES);
+    }
+
+    private void store(int slot, long entry) {
+        if (heapSlots != null) {
+            ARRAY.setRelease(heapSlots, slot, entry);
+        } else {
+            BUFFER.setRelease(offHeapSlots, slot * Long.BYTES, entry);
+        }
+    }
+
+    private boolean compareAndSet(int slot, long expected, long entry) {
+        return heapSlots != null
+                ? ARRAY.compareAndSet(heapSlots, slot, expected, entry)
+                : BUFFER.compareAndSet(offHeapSlots, slot * Long.BYTES, expected, entry);
+    }
+}
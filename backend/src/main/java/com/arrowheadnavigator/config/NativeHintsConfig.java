@@ -0,0 +1,63 @@
+package com.arrowheadnavigator.config;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.AssessmentJob;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.DepartureRisk;
+import com.arrowheadnavigator.model.DepartureWindow;
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.arrowheadnavigator.model.RiskAlert;
+import com.arrowheadnavigator.model.RiskFactor;
+import com.arrowheadnavigator.model.RouteAssessment;
+import com.arrowheadnavigator.model.RouteRiskDistribution;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for Spring AOT processing and GraalVM native images.
+ * Lombok needs nothing at runtime since its accessors and builders are generated at
+ * compile time, but Jackson binds the models reflectively through those accessors,
+ * including outside controller signatures (the shared cache tier), and Hibernate
+ * reads entity fields and constructors directly.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ModelHints.class)
+public class NativeHintsConfig {
+
+    static class ModelHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] MODELS = {
+                DeliveryRoute.class,
+                RouteWaypoint.class,
+                RiskFactor.class,
+                WeatherData.class,
+                WeatherForecast.class,
+                DepartureRisk.class,
+                DepartureWindow.class,
+                HourlyPrecipitation.class,
+                RouteRiskDistribution.class,
+                AssessmentJob.class,
+                RouteAssessment.class,
+                AlertSubscription.class,
+                RiskAlert.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+            for (Class<?> model : MODELS) {
+                bindingHints.registerReflectionHints(hints.reflection(), model);
+                hints.reflection().registerType(model,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.arrowheadnavigator.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis wiring for the shared cache tier, only active when cache.shared.type=redis.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache.shared.type", havingValue = "redis")
+public class RedisCacheConfig {
+
+    /**
+     * Listener container that receives cache invalidation messages from other replicas.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
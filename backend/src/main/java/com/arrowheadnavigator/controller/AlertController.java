@@ -0,0 +1,72 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.RiskAlert;
+import com.arrowheadnavigator.service.AlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for route risk alert subscriptions.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "*")
+public class AlertController {
+
+    private final AlertService alertService;
+
+    @Autowired
+    public AlertController(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    /**
+     * Subscribe to risk alerts for a route, a supplier, or an area.
+     *
+     * @param subscription Scope, threshold, hysteresis, debounce and delivery sink
+     * @return The subscription with its assigned id
+     */
+    @PostMapping("/subscriptions")
+    public ResponseEntity<?> subscribe(@RequestBody AlertSubscription subscription) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(alertService.subscribe(subscription));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get all alert subscriptions.
+     */
+    @GetMapping("/subscriptions")
+    public ResponseEntity<List<AlertSubscription>> getSubscriptions() {
+        return ResponseEntity.ok(alertService.getSubscriptions());
+    }
+
+    /**
+     * Remove an alert subscription.
+     *
+     * @param id Subscription id
+     */
+    @DeleteMapping("/subscriptions/{id}")
+    public ResponseEntity<Void> unsubscribe(@PathVariable String id) {
+        if (!alertService.unsubscribe(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the most recently raised alerts, newest first.
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<RiskAlert>> getRecentAlerts() {
+        return ResponseEntity.ok(alertService.getRecentAlerts());
+    }
+}
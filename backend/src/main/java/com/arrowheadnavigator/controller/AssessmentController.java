@@ -0,0 +1,114 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.model.AssessmentJob;
+import com.arrowheadnavigator.model.RouteAssessment;
+import com.arrowheadnavigator.service.AssessmentJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for background fleet assessment jobs.
+ * Submit a job, then poll it, stream its results as routes finish, or fetch them at the end.
+ */
+@RestController
+@RequestMapping("/api/assessments")
+@CrossOrigin(origins = "*")
+public class AssessmentController {
+
+    private final AssessmentJobService assessmentJobService;
+
+    @Autowired
+    public AssessmentController(AssessmentJobService assessmentJobService) {
+        this.assessmentJobService = assessmentJobService;
+    }
+
+    /**
+     * Submit a fleet assessment.
+     *
+     * @param request Type, priority, route selection and scenario parameters
+     * @return The queued job; 429 if too many routes are already waiting
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody AssessmentJob request) {
+        try {
+            AssessmentJob job = assessmentJobService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/assessments/" + job.getJobId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a job's status and progress.
+     *
+     * @param jobId Job ID
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<AssessmentJob> getJob(@PathVariable String jobId) {
+        AssessmentJob job = assessmentJobService.getJob(jobId);
+
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Get the results a job has produced so far.
+     *
+     * @param jobId Job ID
+     */
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<List<RouteAssessment>> getResults(@PathVariable String jobId) {
+        List<RouteAssessment> results = assessmentJobService.getResults(jobId);
+
+        if (results == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Stream a job's results as server-sent events, one per route as it finishes.
+     * Results produced before the stream was opened are sent first.
+     *
+     * @param jobId Job ID
+     */
+    @GetMapping(value = "/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<RouteAssessment>> streamResults(@PathVariable String jobId) {
+        Flux<RouteAssessment> results = assessmentJobService.streamResults(jobId);
+
+        if (results == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Cancel a job.
+     *
+     * @param jobId Job ID
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<AssessmentJob> cancel(@PathVariable String jobId) {
+        AssessmentJob job = assessmentJobService.cancel(jobId);
+
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(job);
+    }
+}
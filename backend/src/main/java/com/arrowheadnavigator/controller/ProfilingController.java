@@ -0,0 +1,91 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.service.FlightRecordingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admin controller for on-demand Flight Recorder recordings.
+ * Only registered when profiling.endpoint-enabled=true. Start a recording, reproduce
+ * the problem, then stop it to download the .jfr file for JDK Mission Control or `jfr print`.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling")
+@ConditionalOnProperty(name = "profiling.endpoint-enabled", havingValue = "true")
+public class ProfilingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @Autowired
+    public ProfilingController(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    /**
+     * Get the state of the current or most recent recording.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+
+    /**
+     * Start a recording.
+     *
+     * @param seconds  Seconds after which the recording stops on its own, up to the configured maximum
+     * @param settings "default" for low overhead, or "profile" for more detail
+     * @return The recording's state; 409 if one is already running
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> start(
+            @RequestParam(defaultValue = "60") long seconds,
+            @RequestParam(defaultValue = "default") String settings) throws IOException {
+
+        // Default to the maximum duration if out of range
+        Duration duration = Duration.ofSeconds(seconds);
+        if (seconds <= 0 || duration.compareTo(flightRecordingService.getMaxDuration()) > 0) {
+            duration = flightRecordingService.getMaxDuration();
+        }
+
+        try {
+            return ResponseEntity.ok(flightRecordingService.start(duration, settings));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the recording, if it has not already stopped on its own, and download it.
+     *
+     * @return The .jfr file; 404 if no recording has been made
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stop() {
+        Path file = flightRecordingService.stop();
+
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
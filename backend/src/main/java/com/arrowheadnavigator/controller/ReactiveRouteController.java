@@ -0,0 +1,44 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.service.ReactiveRouteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the route endpoints.
+ * Requests are released from the request thread while weather is looked up.
+ */
+@RestController
+@RequestMapping("/api/reactive/routes")
+@CrossOrigin(origins = "*")
+public class ReactiveRouteController {
+
+    private final ReactiveRouteService routeService;
+
+    @Autowired
+    public ReactiveRouteController(ReactiveRouteService routeService) {
+        this.routeService = routeService;
+    }
+
+    /**
+     * Get all routes.
+     */
+    @GetMapping
+    public Flux<DeliveryRoute> getAllRoutes() {
+        return routeService.getAllRoutes();
+    }
+
+    /**
+     * Get a specific route by ID.
+     */
+    @GetMapping("/{routeId}")
+    public Mono<ResponseEntity<DeliveryRoute>> getRouteById(@PathVariable String routeId) {
+        return routeService.getRouteById(routeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
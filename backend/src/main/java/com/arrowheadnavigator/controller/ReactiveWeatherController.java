@@ -0,0 +1,77 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import com.arrowheadnavigator.service.ReactiveWeatherService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the weather endpoints.
+ * Requests are released from the request thread while weather is looked up.
+ */
+@RestController
+@RequestMapping("/api/reactive/weather")
+@CrossOrigin(origins = "*")
+public class ReactiveWeatherController {
+
+    private final ReactiveWeatherService weatherService;
+
+    @Autowired
+    public ReactiveWeatherController(ReactiveWeatherService weatherService) {
+        this.weatherService = weatherService;
+    }
+
+    /**
+     * Get current weather conditions for a specific location.
+     *
+     * @param latitude  Location latitude
+     * @param longitude Location longitude
+     * @return Current weather data
+     */
+    @GetMapping("/current")
+    public Mono<WeatherData> getCurrentWeather(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude) {
+
+        return weatherService.getCurrentWeather(latitude, longitude);
+    }
+
+    /**
+     * Get weather forecast for a specific location.
+     *
+     * @param latitude  Location latitude
+     * @param longitude Location longitude
+     * @param days      Number of days to forecast (max 7)
+     * @return Forecast data, one element per day
+     */
+    @GetMapping("/forecast")
+    public Flux<WeatherForecast> getWeatherForecast(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude,
+            @RequestParam(value = "days", defaultValue = "5") int days) {
+
+        if (days < 1 || days > 7) {
+            days = 5; // Default to 5 days if out of range
+        }
+
+        return weatherService.getWeatherForecast(latitude, longitude, days);
+    }
+
+    /**
+     * Get flood risk assessment for a location.
+     *
+     * @param latitude  Location latitude
+     * @param longitude Location longitude
+     * @return Flood risk score (0-10)
+     */
+    @GetMapping("/flood-risk")
+    public Mono<Integer> getFloodRisk(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude) {
+
+        return weatherService.calculateFloodRisk(latitude, longitude);
+    }
+}
@@ -0,0 +1,68 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.service.RiskTileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for flood risk map tiles.
+ * Serves PNG heatmap tiles that the mobile map can overlay on top of the base map.
+ */
+@RestController
+@RequestMapping("/api/risk")
+@CrossOrigin(origins = "*")
+public class RiskTileController {
+
+    private final RiskTileService riskTileService;
+
+    @Autowired
+    public RiskTileController(RiskTileService riskTileService) {
+        this.riskTileService = riskTileService;
+    }
+
+    /**
+     * Get a flood risk heatmap tile.
+     *
+     * @param z Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return 256x256 PNG tile; tiles with cells still being evaluated are not cached by clients
+     */
+    @GetMapping(value = "/tiles/{z}/{x}/{y}", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+
+        if (!riskTileService.isValidTile(z, x, y)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        RiskTileService.Tile tile = riskTileService.getTile(z, x, y);
+        return ResponseEntity.ok()
+                .cacheControl(tile.complete() ? CacheControl.maxAge(5, TimeUnit.MINUTES) : CacheControl.noStore())
+                .contentType(MediaType.IMAGE_PNG)
+                .body(tile.png());
+    }
+
+    /**
+     * Invalidate the cached risk for the cell containing a location.
+     * Any tiles drawn from that cell are re-rendered on their next request.
+     *
+     * @param latitude  Location latitude
+     * @param longitude Location longitude
+     */
+    @DeleteMapping("/cells")
+    public ResponseEntity<Void> invalidateCell(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude) {
+
+        riskTileService.invalidateCell(latitude, longitude);
+        return ResponseEntity.noContent().build();
+    }
+}
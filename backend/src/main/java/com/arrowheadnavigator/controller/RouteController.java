@@ -1,13 +1,20 @@
 package com.arrowheadnavigator.controller;
 
 import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.DepartureRisk;
+import com.arrowheadnavigator.model.DepartureWindow;
+import com.arrowheadnavigator.model.RouteRiskDistribution;
+import com.arrowheadnavigator.service.RiskEnsembleService;
 import com.arrowheadnavigator.service.RouteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for delivery route management.
@@ -18,10 +25,12 @@ import java.util.List;
 public class RouteController {
 
     private final RouteService routeService;
+    private final RiskEnsembleService riskEnsembleService;
 
     @Autowired
-    public RouteController(RouteService routeService) {
+    public RouteController(RouteService routeService, RiskEnsembleService riskEnsembleService) {
         this.routeService = routeService;
+        this.riskEnsembleService = riskEnsembleService;
     }
 
     /**
@@ -46,6 +55,130 @@ public class RouteController {
         return ResponseEntity.ok(route);
     }
 
+    /**
+     * Get the risk of a route for a specific departure time.
+     *
+     * @param routeId   Route ID
+     * @param departure Departure time (defaults to now, at most a week ahead)
+     * @return Risk at each waypoint at its estimated arrival time; 400 if the departure is past the forecast
+     */
+    @GetMapping("/{routeId}/departure-risk")
+    public ResponseEntity<?> getDepartureRisk(
+            @PathVariable String routeId,
+            @RequestParam(value = "departure", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departure) {
+
+        if (departure == null) {
+            departure = LocalDateTime.now();
+        }
+
+        DepartureRisk risk;
+        try {
+            risk = routeService.assessDeparture(routeId, departure);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        if (risk == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(risk);
+    }
+
+    /**
+     * Find the best departure time for a route within a window.
+     *
+     * @param routeId     Route ID
+     * @param start       Start of the window (defaults to now)
+     * @param hours       Length of the window in hours (max 120)
+     * @param stepMinutes Minutes between candidate departures (5-240)
+     * @return Risk for every candidate departure and the best one; 400 if the window ends past the forecast
+     */
+    @GetMapping("/{routeId}/departure-window")
+    public ResponseEntity<?> getDepartureWindow(
+            @PathVariable String routeId,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "hours", defaultValue = "48") int hours,
+            @RequestParam(value = "stepMinutes", defaultValue = "15") int stepMinutes) {
+
+        if (start == null) {
+            start = LocalDateTime.now();
+        }
+        if (hours < 1 || hours > 120) {
+            hours = 48; // Default to 48 hours if out of range
+        }
+        if (stepMinutes < 5 || stepMinutes > 240) {
+            stepMinutes = 15; // Default to 15 minutes if out of range
+        }
+
+        DepartureWindow window;
+        try {
+            window = routeService.scanDepartureWindow(routeId, start, hours, stepMinutes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        if (window == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(window);
+    }
+
+    /**
+     * Get the risk distribution for every route over an ensemble of perturbed forecasts.
+     *
+     * @param samples   Number of forecast samples per route (100-10000)
+     * @param threshold Risk level to report the chance of reaching (1-10)
+     * @return Percentiles and exceedance probability for each route
+     */
+    @GetMapping("/risk-distribution")
+    public ResponseEntity<List<RouteRiskDistribution>> getFleetRiskDistribution(
+            @RequestParam(value = "samples", defaultValue = "1000") int samples,
+            @RequestParam(value = "threshold", defaultValue = "7") int threshold) {
+
+        if (samples < 100 || samples > 10000) {
+            samples = 1000; // Default to 1000 samples if out of range
+        }
+        if (threshold < 1 || threshold > 10) {
+            threshold = 7; // Default to high risk if out of range
+        }
+
+        return ResponseEntity.ok(riskEnsembleService.simulateFleet(samples, threshold));
+    }
+
+    /**
+     * Get the risk distribution for a route over an ensemble of perturbed forecasts.
+     *
+     * @param routeId   Route ID
+     * @param samples   Number of forecast samples (100-10000)
+     * @param threshold Risk level to report the chance of reaching (1-10)
+     * @return Percentiles and exceedance probability for the route
+     */
+    @GetMapping("/{routeId}/risk-distribution")
+    public ResponseEntity<RouteRiskDistribution> getRiskDistribution(
+            @PathVariable String routeId,
+            @RequestParam(value = "samples", defaultValue = "1000") int samples,
+            @RequestParam(value = "threshold", defaultValue = "7") int threshold) {
+
+        if (samples < 100 || samples > 10000) {
+            samples = 1000; // Default to 1000 samples if out of range
+        }
+        if (threshold < 1 || threshold > 10) {
+            threshold = 7; // Default to high risk if out of range
+        }
+
+        RouteRiskDistribution distribution = riskEnsembleService.simulateRoute(routeId, samples, threshold);
+
+        if (distribution == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(distribution);
+    }
+
     /**
      * Create a new route.
      */
@@ -0,0 +1,52 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.service.NwsWeatherClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for injecting faults into the local weather.gov stub.
+ * Only registered when weather.stub.fault-endpoint-enabled=true, so an upstream
+ * brownout can be started and stopped while the API is under load.
+ */
+@RestController
+@RequestMapping("/api/weather/stub")
+@ConditionalOnProperty(name = "weather.stub.fault-endpoint-enabled", havingValue = "true")
+public class WeatherStubController {
+
+    private final NwsWeatherClient weatherClient;
+
+    @Autowired
+    public WeatherStubController(NwsWeatherClient weatherClient) {
+        this.weatherClient = weatherClient;
+    }
+
+    /**
+     * Get the faults currently being injected.
+     */
+    @GetMapping("/faults")
+    public ResponseEntity<Map<String, Object>> getFaults() {
+        return ResponseEntity.ok(Map.of(
+                "latencyMs", weatherClient.getLatencyMillis(),
+                "failureRate", weatherClient.getFailureRate()));
+    }
+
+    /**
+     * Change the faults injected into upstream weather calls.
+     *
+     * @param latencyMs   Extra latency added to every call
+     * @param failureRate Fraction of calls that fail (0.0-1.0)
+     */
+    @PutMapping("/faults")
+    public ResponseEntity<Map<String, Object>> setFaults(
+            @RequestParam(value = "latencyMs", defaultValue = "0") long latencyMs,
+            @RequestParam(value = "failureRate", defaultValue = "0") double failureRate) {
+
+        weatherClient.setFaults(latencyMs, failureRate);
+        return getFaults();
+    }
+}
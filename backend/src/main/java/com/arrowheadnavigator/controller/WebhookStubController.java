@@ -0,0 +1,59 @@
+package com.arrowheadnavigator.controller;
+
+import com.arrowheadnavigator.model.RiskAlert;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local webhook receiver for testing alert delivery end to end.
+ * Only registered when alerts.stub.webhook-enabled=true; point a webhook
+ * subscription at /api/alerts/stub/webhook and read back what arrived.
+ */
+@RestController
+@RequestMapping("/api/alerts/stub")
+@ConditionalOnProperty(name = "alerts.stub.webhook-enabled", havingValue = "true")
+public class WebhookStubController {
+
+    private static final int MAX_RECEIVED = 500;
+
+    private final List<RiskAlert> received = new ArrayList<>();
+
+    /**
+     * Accept an alert the way an external webhook would.
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> receive(@RequestBody RiskAlert alert) {
+        synchronized (received) {
+            if (received.size() >= MAX_RECEIVED) {
+                received.remove(0);
+            }
+            received.add(alert);
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Get the alerts received so far, oldest first.
+     */
+    @GetMapping("/webhook")
+    public ResponseEntity<List<RiskAlert>> getReceived() {
+        synchronized (received) {
+            return ResponseEntity.ok(new ArrayList<>(received));
+        }
+    }
+
+    /**
+     * Forget the alerts received so far.
+     */
+    @DeleteMapping("/webhook")
+    public ResponseEntity<Void> clear() {
+        synchronized (received) {
+            received.clear();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
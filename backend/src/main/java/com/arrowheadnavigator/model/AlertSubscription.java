@@ -0,0 +1,39 @@
+package com.arrowheadnavigator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A dispatcher's request to be alerted about route risk.
+ * Scoped to one route, every route for a supplier, or every route
+ * with a waypoint inside an area; exactly one scope should be set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertSubscription {
+
+    private String id;
+
+    // Scope: a single route...
+    private String routeId;
+    // ...every route for a supplier...
+    private String supplier;
+    // ...or every route passing through an area
+    private Double minLatitude;
+    private Double maxLatitude;
+    private Double minLongitude;
+    private Double maxLongitude;
+
+    private int threshold;  // Alert when route risk reaches this level (0-10)
+    private int hysteresis;  // Clear only once risk falls more than this far below the threshold
+    private boolean notifyRiskPoints;  // Also alert when a waypoint becomes a risk point
+    private int debounceSeconds;  // Minimum time between alerts for the same route
+
+    // Delivery
+    private String sink;  // "webhook" or "log"
+    private String webhookUrl;
+}
@@ -0,0 +1,60 @@
+package com.arrowheadnavigator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A fleet assessment running in the background.
+ * Submitted with the type, priority and route selection filled in; the rest is
+ * filled in by the server as the job progresses.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssessmentJob {
+
+    public enum Type {
+        RESCORE,  // Reassess routes against current weather, updating them
+        SCENARIO  // Score routes with forecast rainfall scaled, without updating them
+    }
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private String jobId;
+    private Type type;
+    private Priority priority;
+
+    // Route selection: explicit route IDs, every route for a supplier, or the whole fleet
+    private List<String> routeIds;
+    private String supplier;
+
+    private Double rainfallMultiplier;  // SCENARIO only, e.g. 1.5 for 50% more rain than forecast
+
+    private Status status;
+    private int totalRoutes;
+    private int completedRoutes;
+    private int failedRoutes;
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -47,4 +48,10 @@ public class DeliveryRoute {
     // Risk factors that contribute to overall risk level
     @Transient  // Not stored in DB but calculated at runtime
     private List<RiskFactor> riskFactors;
+
+    // When the weather behind the risk assessment was fetched, and whether it was stale
+    @Transient
+    private LocalDateTime weatherRetrievalTime;
+    @Transient
+    private boolean weatherStale;
 }
\ No newline at end of file
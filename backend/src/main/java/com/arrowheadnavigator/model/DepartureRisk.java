@@ -0,0 +1,33 @@
+package com.arrowheadnavigator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents the risk of driving a route when leaving at a specific time.
+ * Each waypoint is scored against the forecast for the hour the truck reaches it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DepartureRisk {
+
+    private String routeId;
+
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+
+    private int riskLevel;  // 0-10 scale, highest waypoint risk at its ETA
+    private int peakRiskSequenceNumber;  // Waypoint where the peak risk occurs
+
+    // Risk at each waypoint at its ETA, in sequence order (only for single evaluations)
+    private List<Integer> waypointRiskLevels;
+}
@@ -0,0 +1,31 @@
+package com.arrowheadnavigator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents a scan of candidate departure times for a route.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartureWindow {
+
+    private String routeId;
+
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private int stepMinutes;
+
+    // Risk for every candidate departure, in time order
+    private List<DepartureRisk> slots;
+
+    // Earliest departure with the lowest risk
+    private DepartureRisk bestDeparture;
+}
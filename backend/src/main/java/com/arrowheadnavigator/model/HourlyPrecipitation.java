@@ -0,0 +1,22 @@
+package com.arrowheadnavigator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hourly precipitation series for one location, as reduced from an NWS gridpoint forecast.
+ * Kept as primitive arrays since the risk model walks them hour by hour.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyPrecipitation {
+
+    private long startEpochHour;  // Hours since 1970-01-01T00:00Z of the first entry
+
+    private double[] rainfallInches;  // Expected rainfall during each hour
+    private double[] probabilityPercent;  // Chance of precipitation during each hour (0-100)
+}
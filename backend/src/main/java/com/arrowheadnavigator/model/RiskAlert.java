@@ -0,0 +1,39 @@
+package com.arrowheadnavigator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An alert raised for a subscription when a route's risk changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskAlert {
+
+    public enum Type {
+        RISK_RAISED,  // Route risk reached the threshold
+        RISK_CLEARED,  // Route risk fell back below the threshold
+        RISK_POINT  // A waypoint became a risk point
+    }
+
+    private String subscriptionId;
+    private Type type;
+
+    private String routeId;
+    private String routeName;
+    private String supplier;
+
+    private int riskLevel;
+    private Integer previousRiskLevel;  // Not set for RISK_POINT alerts
+    private int threshold;
+
+    private Integer waypointSequenceNumber;  // Only for RISK_POINT alerts
+
+    private LocalDateTime triggeredAt;
+}
@@ -0,0 +1,33 @@
+package com.arrowheadnavigator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The result of assessing one route as part of a fleet assessment job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RouteAssessment {
+
+    private String jobId;
+    private String routeId;
+    private String routeName;
+    private String supplier;
+
+    private int riskLevel;  // 0-10 scale
+    private int previousRiskLevel;  // Risk before this assessment (RESCORE) or as currently assessed (SCENARIO)
+    private boolean weatherStale;
+
+    private String error;  // Set instead of a risk level when the route could not be assessed
+
+    private LocalDateTime assessedAt;
+}
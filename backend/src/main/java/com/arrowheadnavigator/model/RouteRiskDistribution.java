@@ -0,0 +1,35 @@
+package com.arrowheadnavigator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Distribution of a route's risk level over an ensemble of perturbed forecasts.
+ * Shows how much the single risk score could move if the rain forecast is off.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteRiskDistribution {
+
+    private String routeId;
+    private String routeName;
+
+    private int samples;
+    private int expectedRiskLevel;  // Risk level from the unperturbed forecast
+
+    private double meanRiskLevel;
+    private int p50RiskLevel;
+    private int p90RiskLevel;
+
+    private int riskThreshold;
+    private double exceedanceProbability;  // Fraction of samples at or above the threshold
+
+    // Fraction of samples at each risk level, indexed 0-10
+    private List<Double> levelProbabilities;
+}
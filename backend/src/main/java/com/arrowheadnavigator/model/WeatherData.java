@@ -9,13 +9,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import java.time.LocalDateTime;
 
 /**
  * Represents current weather conditions at a specific location.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -46,4 +47,8 @@ public class WeatherData {
 
     private LocalDateTime observationTime;
     private LocalDateTime retrievalTime;
+
+    // Served from cache while a refresh from weather.gov is pending or failing
+    @Transient
+    private boolean stale;
 }
\ No newline at end of file
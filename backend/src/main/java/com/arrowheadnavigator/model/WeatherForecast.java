@@ -9,13 +9,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Represents a daily weather forecast for a specific location.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -48,4 +50,10 @@ public class WeatherForecast {
 
     // Soil saturation prediction (important for flood risk)
     private double soilSaturationPct;
+
+    // When this forecast was fetched, and whether it is being served past its freshness window
+    @Transient
+    private LocalDateTime retrievalTime;
+    @Transient
+    private boolean stale;
 }
\ No newline at end of file
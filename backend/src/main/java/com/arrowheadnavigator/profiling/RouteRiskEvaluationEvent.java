@@ -0,0 +1,32 @@
+package com.arrowheadnavigator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one route risk assessment, including its weather lookups.
+ */
+@Name("com.arrowheadnavigator.RouteRiskEvaluation")
+@Label("Route Risk Evaluation")
+@Category({"Arrowhead Navigator", "Risk"})
+@Description("Assessment of one delivery route's flood risk")
+@StackTrace(false)
+public class RouteRiskEvaluationEvent extends Event {
+
+    @Label("Route ID")
+    public String routeId;
+
+    @Label("Waypoints")
+    public int waypointCount;
+
+    @Label("Risk Level")
+    public int riskLevel;
+
+    @Label("Weather Stale")
+    @Description("The assessment kept its previous risk because weather could not be fetched")
+    public boolean weatherStale;
+}
@@ -0,0 +1,36 @@
+package com.arrowheadnavigator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one warm-restart snapshot write.
+ */
+@Name("com.arrowheadnavigator.SnapshotPublished")
+@Label("Snapshot Published")
+@Category({"Arrowhead Navigator", "Snapshot"})
+@Description("Warm-restart snapshot of routes and caches written to disk")
+@StackTrace(false)
+public class SnapshotPublishedEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Routes")
+    public int routes;
+
+    @Label("Weather Cells")
+    public int weatherCells;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
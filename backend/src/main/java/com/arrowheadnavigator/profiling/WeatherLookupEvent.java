@@ -0,0 +1,49 @@
+package com.arrowheadnavigator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a weather cell lookup or the upstream refresh behind one.
+ */
+@Name("com.arrowheadnavigator.WeatherLookup")
+@Label("Weather Lookup")
+@Category({"Arrowhead Navigator", "Weather"})
+@Description("Weather cell cache lookup, or a refresh of a cell from weather.gov")
+@StackTrace(false)
+public class WeatherLookupEvent extends Event {
+
+    // Outcomes of a lookup
+    public static final String HIT = "HIT";
+    public static final String STALE = "STALE";
+    public static final String MISS = "MISS";
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    // Outcomes of a refresh
+    public static final String FETCHED = "FETCHED";
+    public static final String FAILED = "FAILED";
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Cell")
+    public long cell;
+
+    @Label("Latitude")
+    public double latitude;
+
+    @Label("Longitude")
+    public double longitude;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Upstream Latency")
+    @Description("Time spent waiting on weather.gov; zero when served from cache")
+    @Timespan(Timespan.NANOSECONDS)
+    public long upstreamLatency;
+}
@@ -0,0 +1,490 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.RiskAlert;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.util.GeoCell;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Service for alerting dispatchers when route risk crosses a threshold.
+ * Subscriptions are indexed by scope and threshold, so each risk assessment only
+ * looks at the subscriptions whose threshold lies between the old and new risk level.
+ * Alerts are debounced per route and use hysteresis so a route hovering around a
+ * threshold does not flap between raised and cleared. Each sink delivers from its own
+ * bounded queue, so a slow webhook cannot hold up alerts bound for the log.
+ */
+@Slf4j
+@Service
+public class AlertService {
+
+    // Area subscriptions are indexed on a coarser grid than the weather cells
+    private static final double AREA_CELL_DEGREES = 0.1;
+    private static final int MAX_AREA_CELLS = 10_000;
+
+    private final RouteService routeService;
+    private final Map<String, AlertSink> sinks = new HashMap<>();
+    private final Map<String, ThreadPoolExecutor> deliveryPools = new HashMap<>();
+    private final ScheduledExecutorService debounceTimer;
+    private final int recentSize;
+
+    private final Map<String, AlertSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AlertState>> states = new ConcurrentHashMap<>();
+    private final Deque<RiskAlert> recentAlerts = new ArrayDeque<>();
+
+    // Rebuilt on every subscription change; assessments far outnumber subscription changes
+    private volatile SubscriptionIndex index = SubscriptionIndex.build(List.of());
+
+    public AlertService(
+            RouteService routeService,
+            List<AlertSink> alertSinks,
+            @Value("${alerts.delivery-threads:2}") int deliveryThreads,
+            @Value("${alerts.delivery-queue:1000}") int deliveryQueue,
+            @Value("${alerts.recent-size:200}") int recentSize) {
+        this.routeService = routeService;
+        this.recentSize = recentSize;
+
+        for (AlertSink sink : alertSinks) {
+            String name = sink.getName();
+            sinks.put(name, sink);
+
+            AtomicInteger threadCount = new AtomicInteger();
+            deliveryPools.put(name, new ThreadPoolExecutor(
+                    deliveryThreads, deliveryThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(deliveryQueue),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "alert-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> log.warn("Alert delivery queue for {} is full, dropping alert", name)));
+        }
+
+        this.debounceTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register a subscription and check it against every route's current risk,
+     * so a route already past the threshold is alerted on now rather than on its next change.
+     *
+     * @throws IllegalArgumentException if the scope, threshold or sink is invalid
+     */
+    public AlertSubscription subscribe(AlertSubscription subscription) {
+        validate(subscription);
+        subscription.setId(UUID.randomUUID().toString());
+        if (subscription.getSink() == null) {
+            subscription.setSink("log");
+        }
+
+        synchronized (subscriptions) {
+            subscriptions.put(subscription.getId(), subscription);
+            index = SubscriptionIndex.build(subscriptions.values());
+        }
+
+        SubscriptionIndex scope = SubscriptionIndex.build(List.of(subscription));
+        for (DeliveryRoute route : routeService.listRoutes()) {
+            if (!scope.thresholdCandidates(route, 0, subscription.getThreshold()).isEmpty()) {
+                evaluate(subscription, route, route.getRiskLevel());
+            }
+        }
+        return subscription;
+    }
+
+    /**
+     * Remove a subscription along with its alert state.
+     */
+    public boolean unsubscribe(String subscriptionId) {
+        synchronized (subscriptions) {
+            if (subscriptions.remove(subscriptionId) == null) {
+                return false;
+            }
+            index = SubscriptionIndex.build(subscriptions.values());
+        }
+        states.remove(subscriptionId);
+        return true;
+    }
+
+    public List<AlertSubscription> getSubscriptions() {
+        return new ArrayList<>(subscriptions.values());
+    }
+
+    /**
+     * Most recent alerts, newest first.
+     */
+    public List<RiskAlert> getRecentAlerts() {
+        synchronized (recentAlerts) {
+            return new ArrayList<>(recentAlerts);
+        }
+    }
+
+    /**
+     * Check the subscriptions affected by a route's new risk level.
+     */
+    @EventListener
+    public void onRouteRiskAssessed(RouteRiskAssessedEvent event) {
+        SubscriptionIndex current = index;
+        if (current.isEmpty()) {
+            return;
+        }
+
+        DeliveryRoute route = event.route();
+        int previousRisk = event.previousRiskLevel();
+        int risk = route.getRiskLevel();
+
+        if (risk != previousRisk) {
+            // Raising needs old < t <= new; clearing needs new < t - h <= old
+            int from = Math.min(previousRisk, risk);
+            int to = Math.max(previousRisk, risk) + current.maxHysteresis();
+            for (AlertSubscription subscription : current.thresholdCandidates(route, from, to)) {
+                evaluate(subscription, route, previousRisk);
+            }
+        }
+
+        if (!event.newRiskPoints().isEmpty()) {
+            for (AlertSubscription subscription : current.riskPointSubscribers(route)) {
+                notifyRiskPoints(subscription, route, event.newRiskPoints());
+            }
+        }
+    }
+
+    /**
+     * Move a subscription's state for a route towards the route's current risk,
+     * holding back the change until the debounce window has passed.
+     */
+    private void evaluate(AlertSubscription subscription, DeliveryRoute route, int previousRisk) {
+        AlertState state = stateFor(subscription, route);
+        RiskAlert alert;
+        synchronized (state) {
+            int risk = route.getRiskLevel();
+            boolean target = state.active
+                    ? risk >= subscription.getThreshold() - subscription.getHysteresis()
+                    : risk >= subscription.getThreshold();
+            if (target == state.active) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            long readyAt = state.lastNotifiedAt + TimeUnit.SECONDS.toMillis(subscription.getDebounceSeconds());
+            if (now < readyAt) {
+                if (!state.pending) {
+                    state.pending = true;
+                    debounceTimer.schedule(() -> recheck(subscription, route, previousRisk),
+                            readyAt - now, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+
+            state.active = target;
+            state.lastNotifiedAt = now;
+            alert = alertFor(subscription, route, target ? RiskAlert.Type.RISK_RAISED : RiskAlert.Type.RISK_CLEARED)
+                    .previousRiskLevel(previousRisk)
+                    .build();
+        }
+        dispatch(subscription, alert);
+    }
+
+    /**
+     * Re-evaluate a change that was held back by the debounce window.
+     */
+    private void recheck(AlertSubscription subscription, DeliveryRoute route, int previousRisk) {
+        if (!subscriptions.containsKey(subscription.getId())) {
+            return;
+        }
+        AlertState state = stateFor(subscription, route);
+        synchronized (state) {
+            state.pending = false;
+        }
+        evaluate(subscription, route, previousRisk);
+    }
+
+    private void notifyRiskPoints(AlertSubscription subscription, DeliveryRoute route, List<Integer> newRiskPoints) {
+        List<RouteWaypoint> matched = new ArrayList<>();
+        for (RouteWaypoint waypoint : route.getWaypoints()) {
+            if (newRiskPoints.contains(waypoint.getSequenceNumber())
+                    && (!isAreaScoped(subscription) || inArea(subscription, waypoint))) {
+                matched.add(waypoint);
+            }
+        }
+        if (matched.isEmpty()) {
+            return;
+        }
+
+        AlertState state = stateFor(subscription, route);
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            if (now < state.lastRiskPointAt + TimeUnit.SECONDS.toMillis(subscription.getDebounceSeconds())) {
+                return;
+            }
+            state.lastRiskPointAt = now;
+        }
+
+        for (RouteWaypoint waypoint : matched) {
+            dispatch(subscription, alertFor(subscription, route, RiskAlert.Type.RISK_POINT)
+                    .riskLevel(waypoint.getLocalRiskLevel())
+                    .waypointSequenceNumber(waypoint.getSequenceNumber())
+                    .build());
+        }
+    }
+
+    private RiskAlert.RiskAlertBuilder alertFor(AlertSubscription subscription, DeliveryRoute route,
+                                                RiskAlert.Type type) {
+        return RiskAlert.builder()
+                .subscriptionId(subscription.getId())
+                .type(type)
+                .routeId(route.getRouteId())
+                .routeName(route.getName())
+                .supplier(route.getSupplier())
+                .riskLevel(route.getRiskLevel())
+                .threshold(subscription.getThreshold())
+                .triggeredAt(LocalDateTime.now());
+    }
+
+    /**
+     * Record an alert and hand it to its sink off the assessment thread.
+     */
+    private void dispatch(AlertSubscription subscription, RiskAlert alert) {
+        synchronized (recentAlerts) {
+            recentAlerts.addFirst(alert);
+            while (recentAlerts.size() > recentSize) {
+                recentAlerts.removeLast();
+            }
+        }
+
+        AlertSink sink = sinks.get(subscription.getSink());
+        deliveryPools.get(subscription.getSink()).execute(() -> {
+            try {
+                sink.deliver(subscription, alert);
+            } catch (RuntimeException e) {
+                log.warn("Failed to deliver alert for subscription {} via {}: {}",
+                        subscription.getId(), subscription.getSink(), e.getMessage());
+            }
+        });
+    }
+
+    private AlertState stateFor(AlertSubscription subscription, DeliveryRoute route) {
+        return states.computeIfAbsent(subscription.getId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(route.getRouteId(), id -> new AlertState());
+    }
+
+    private void validate(AlertSubscription subscription) {
+        int scopes = (subscription.getRouteId() != null ? 1 : 0)
+                + (subscription.getSupplier() != null ? 1 : 0)
+                + (isAreaScoped(subscription) ? 1 : 0);
+        if (scopes != 1) {
+            throw new IllegalArgumentException("Exactly one of routeId, supplier or area bounds must be set");
+        }
+        if (isAreaScoped(subscription)) {
+            if (subscription.getMinLatitude() == null || subscription.getMaxLatitude() == null
+                    || subscription.getMinLongitude() == null || subscription.getMaxLongitude() == null) {
+                throw new IllegalArgumentException("Area subscriptions need all four bounds");
+            }
+            if (subscription.getMinLatitude() > subscription.getMaxLatitude()
+                    || subscription.getMinLongitude() > subscription.getMaxLongitude()) {
+                throw new IllegalArgumentException("Area minimum bounds must not exceed maximum bounds");
+            }
+            if (areaCellCount(subscription) > MAX_AREA_CELLS) {
+                throw new IllegalArgumentException("Area is too large");
+            }
+        }
+        if (subscription.getThreshold() < 1 || subscription.getThreshold() > 10) {
+            throw new IllegalArgumentException("Threshold must be between 1 and 10");
+        }
+        if (subscription.getHysteresis() < 0 || subscription.getHysteresis() >= subscription.getThreshold()) {
+            throw new IllegalArgumentException("Hysteresis must be between 0 and threshold - 1");
+        }
+        if (subscription.getDebounceSeconds() < 0) {
+            throw new IllegalArgumentException("Debounce must not be negative");
+        }
+        String sink = subscription.getSink() != null ? subscription.getSink() : "log";
+        if (!sinks.containsKey(sink)) {
+            throw new IllegalArgumentException("Unknown sink: " + sink);
+        }
+        sinks.get(sink).validate(subscription);
+    }
+
+    private static boolean isAreaScoped(AlertSubscription subscription) {
+        return subscription.getMinLatitude() != null || subscription.getMaxLatitude() != null
+                || subscription.getMinLongitude() != null || subscription.getMaxLongitude() != null;
+    }
+
+    private static boolean inArea(AlertSubscription subscription, RouteWaypoint waypoint) {
+        return waypoint.getLatitude() >= subscription.getMinLatitude()
+                && waypoint.getLatitude() <= subscription.getMaxLatitude()
+                && waypoint.getLongitude() >= subscription.getMinLongitude()
+                && waypoint.getLongitude() <= subscription.getMaxLongitude();
+    }
+
+    /**
+     * Keys of every area-grid cell overlapping a subscription's bounds.
+     */
+    private static List<Long> areaCells(AlertSubscription subscription) {
+        int latCells = cellIndex(subscription.getMaxLatitude()) - cellIndex(subscription.getMinLatitude()) + 1;
+        int lonCells = cellIndex(subscription.getMaxLongitude()) - cellIndex(subscription.getMinLongitude()) + 1;
+
+        List<Long> cells = new ArrayList<>(latCells * lonCells);
+        for (int i = 0; i < latCells; i++) {
+            // Step through cell centers so rounding never skips or repeats a cell
+            double latitude = (Math.floor(subscription.getMinLatitude() / AREA_CELL_DEGREES) + i + 0.5)
+                    * AREA_CELL_DEGREES;
+            for (int j = 0; j < lonCells; j++) {
+                double longitude = (Math.floor(subscription.getMinLongitude() / AREA_CELL_DEGREES) + j + 0.5)
+                        * AREA_CELL_DEGREES;
+                cells.add(GeoCell.key(latitude, longitude, AREA_CELL_DEGREES));
+            }
+        }
+        return cells;
+    }
+
+    private static long areaCellCount(AlertSubscription subscription) {
+        long latCells = cellIndex(subscription.getMaxLatitude()) - cellIndex(subscription.getMinLatitude()) + 1L;
+        long lonCells = cellIndex(subscription.getMaxLongitude()) - cellIndex(subscription.getMinLongitude()) + 1L;
+        return latCells * lonCells;
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / AREA_CELL_DEGREES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        debounceTimer.shutdownNow();
+        deliveryPools.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Alert state for one subscription on one route.
+     */
+    private static final class AlertState {
+        boolean active;
+        boolean pending;
+        long lastNotifiedAt;
+        long lastRiskPointAt;
+    }
+
+    /**
+     * Subscriptions for one scope key, ordered by threshold.
+     */
+    private record Bucket(NavigableMap<Integer, List<AlertSubscription>> byThreshold,
+                          List<AlertSubscription> riskPointSubscribers) {
+
+        static Bucket create() {
+            return new Bucket(new TreeMap<>(), new ArrayList<>());
+        }
+
+        void add(AlertSubscription subscription) {
+            byThreshold.computeIfAbsent(subscription.getThreshold(), t -> new ArrayList<>()).add(subscription);
+            if (subscription.isNotifyRiskPoints()) {
+                riskPointSubscribers.add(subscription);
+            }
+        }
+    }
+
+    /**
+     * Immutable lookup of subscriptions by route, supplier and area cell.
+     */
+    private record SubscriptionIndex(Map<String, Bucket> byRoute, Map<String, Bucket> bySupplier,
+                                     Map<Long, Bucket> byArea, int maxHysteresis) {
+
+        static SubscriptionIndex build(Collection<AlertSubscription> subscriptions) {
+            Map<String, Bucket> byRoute = new HashMap<>();
+            Map<String, Bucket> bySupplier = new HashMap<>();
+            Map<Long, Bucket> byArea = new HashMap<>();
+            int maxHysteresis = 0;
+
+            for (AlertSubscription subscription : subscriptions) {
+                if (subscription.getRouteId() != null) {
+                    byRoute.computeIfAbsent(subscription.getRouteId(), k -> Bucket.create()).add(subscription);
+                } else if (subscription.getSupplier() != null) {
+                    bySupplier.computeIfAbsent(subscription.getSupplier(), k -> Bucket.create()).add(subscription);
+                } else {
+                    for (Long cell : areaCells(subscription)) {
+                        byArea.computeIfAbsent(cell, k -> Bucket.create()).add(subscription);
+                    }
+                }
+                maxHysteresis = Math.max(maxHysteresis, subscription.getHysteresis());
+            }
+            return new SubscriptionIndex(byRoute, bySupplier, byArea, maxHysteresis);
+        }
+
+        boolean isEmpty() {
+            return byRoute.isEmpty() && bySupplier.isEmpty() && byArea.isEmpty();
+        }
+
+        /**
+         * Subscriptions covering a route with a threshold in (from, to].
+         */
+        Set<AlertSubscription> thresholdCandidates(DeliveryRoute route, int from, int to) {
+            return collect(route, bucket -> {
+                List<AlertSubscription> matches = new ArrayList<>();
+                bucket.byThreshold().subMap(from, false, to, true).values().forEach(matches::addAll);
+                return matches;
+            });
+        }
+
+        Set<AlertSubscription> riskPointSubscribers(DeliveryRoute route) {
+            return collect(route, Bucket::riskPointSubscribers);
+        }
+
+        private Set<AlertSubscription> collect(DeliveryRoute route,
+                                               Function<Bucket, List<AlertSubscription>> select) {
+            Set<AlertSubscription> matches = new LinkedHashSet<>();
+            Bucket routeBucket = byRoute.get(route.getRouteId());
+            if (routeBucket != null) {
+                matches.addAll(select.apply(routeBucket));
+            }
+            if (route.getSupplier() != null) {
+                Bucket supplierBucket = bySupplier.get(route.getSupplier());
+                if (supplierBucket != null) {
+                    matches.addAll(select.apply(supplierBucket));
+                }
+            }
+            if (!byArea.isEmpty() && route.getWaypoints() != null) {
+                for (RouteWaypoint waypoint : route.getWaypoints()) {
+                    Bucket areaBucket = byArea.get(
+                            GeoCell.key(waypoint.getLatitude(), waypoint.getLongitude(), AREA_CELL_DEGREES));
+                    if (areaBucket == null) {
+                        continue;
+                    }
+                    // Cells only approximate the area, so check the exact bounds
+                    for (AlertSubscription subscription : select.apply(areaBucket)) {
+                        if (inArea(subscription, waypoint)) {
+                            matches.add(subscription);
+                        }
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.RiskAlert;
+
+/**
+ * A channel alerts can be delivered through.
+ * Subscriptions pick a sink by name.
+ */
+public interface AlertSink {
+
+    /**
+     * Name subscriptions use to select this sink.
+     */
+    String getName();
+
+    /**
+     * Check a subscription's sink-specific settings when it is created.
+     *
+     * @throws IllegalArgumentException if they cannot be used
+     */
+    default void validate(AlertSubscription subscription) {
+    }
+
+    /**
+     * Deliver one alert. Called off the request path, so this may block.
+     */
+    void deliver(AlertSubscription subscription, RiskAlert alert);
+}
@@ -0,0 +1,361 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AssessmentJob;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.RouteAssessment;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for fleet assessments that are too big for one request.
+ * Each job is split into one task per route on a small, dedicated pool whose queue is
+ * ordered by job priority and then by submission, so an urgent job overtakes a bulk one
+ * without waiting for it to finish. The pool is deliberately small: jobs share the
+ * weather.gov bulkhead with interactive requests. Each worker waits for its own cache
+ * misses, so holds at most two upstream slots at a time, and the stale-cell refreshes
+ * jobs start in the background are capped separately by WeatherService. Jobs are refused
+ * outright once too many routes are waiting, rather than queueing without bound.
+ * Finished jobs are swept on a schedule, so they do not wait for the next submission.
+ */
+@Slf4j
+@Service
+public class AssessmentJobService {
+
+    private final RouteService routeService;
+    private final RiskEnsembleService riskEnsembleService;
+    private final WeatherService weatherService;
+    private final ThreadPoolExecutor workers;
+    private final int maxQueuedRoutes;
+    private final int retainedJobs;
+    private final long retentionMillis;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "assessment-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger queuedRoutes = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // In submission order, so the oldest finished jobs are dropped first
+    private final Map<String, JobRun> jobs = new LinkedHashMap<>();
+
+    public AssessmentJobService(
+            RouteService routeService,
+            RiskEnsembleService riskEnsembleService,
+            WeatherService weatherService,
+            @Value("${assessments.workers:2}") int workerCount,
+            @Value("${assessments.max-queued-routes:5000}") int maxQueuedRoutes,
+            @Value("${assessments.retained-jobs:100}") int retainedJobs,
+            @Value("${assessments.retention-minutes:60}") long retentionMinutes) {
+        this.routeService = routeService;
+        this.riskEnsembleService = riskEnsembleService;
+        this.weatherService = weatherService;
+        this.maxQueuedRoutes = maxQueuedRoutes;
+        this.retainedJobs = retainedJobs;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "assessment-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        sweeper.scheduleWithFixedDelay(() -> {
+            synchronized (jobs) {
+                evictFinishedJobs();
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Queue a fleet assessment.
+     *
+     * @throws IllegalArgumentException     if the request is invalid or selects no routes
+     * @throws AssessmentRejectedException if too many routes are already waiting
+     */
+    public AssessmentJob submit(AssessmentJob request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        if (request.getType() == AssessmentJob.Type.SCENARIO && (request.getRainfallMultiplier() == null
+                || request.getRainfallMultiplier() <= 0 || request.getRainfallMultiplier() > 10)) {
+            throw new IllegalArgumentException("Scenarios need a rainfallMultiplier between 0 and 10");
+        }
+
+        List<DeliveryRoute> selected = selectRoutes(request);
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No routes match the request");
+        }
+
+        // Admission control: refuse the whole job rather than run part of it
+        if (queuedRoutes.addAndGet(selected.size()) > maxQueuedRoutes) {
+            queuedRoutes.addAndGet(-selected.size());
+            throw new AssessmentRejectedException("Too many routes waiting to be assessed, try again later");
+        }
+
+        AssessmentJob job = AssessmentJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .type(request.getType())
+                .priority(request.getPriority() != null ? request.getPriority() : AssessmentJob.Priority.NORMAL)
+                .routeIds(request.getRouteIds())
+                .supplier(request.getSupplier())
+                .rainfallMultiplier(request.getRainfallMultiplier())
+                .status(AssessmentJob.Status.QUEUED)
+                .totalRoutes(selected.size())
+                .submittedAt(LocalDateTime.now())
+                .build();
+        JobRun run = new JobRun(job);
+
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), run);
+            evictFinishedJobs();
+        }
+        for (DeliveryRoute route : selected) {
+            workers.execute(new RouteTask(run, route, sequence.incrementAndGet()));
+        }
+
+        return run.snapshot();
+    }
+
+    /**
+     * Get a job's status and progress, or null if it is unknown.
+     */
+    public AssessmentJob getJob(String jobId) {
+        JobRun run = findRun(jobId);
+        return run != null ? run.snapshot() : null;
+    }
+
+    /**
+     * Get the results a job has produced so far, in completion order, or null if it is unknown.
+     */
+    public List<RouteAssessment> getResults(String jobId) {
+        JobRun run = findRun(jobId);
+        if (run == null) {
+            return null;
+        }
+        synchronized (run) {
+            return new ArrayList<>(run.results);
+        }
+    }
+
+    /**
+     * Stream a job's results: everything produced so far, then each route as it finishes.
+     * Completes when the job does. Returns null if the job is unknown.
+     */
+    public Flux<RouteAssessment> streamResults(String jobId) {
+        JobRun run = findRun(jobId);
+        return run != null ? run.sink.asFlux() : null;
+    }
+
+    /**
+     * Cancel a job. Routes still waiting are dropped; routes already being assessed finish
+     * but are not reported.
+     */
+    public AssessmentJob cancel(String jobId) {
+        JobRun run = findRun(jobId);
+        if (run == null) {
+            return null;
+        }
+
+        synchronized (run) {
+            if (run.isFinished()) {
+                return run.snapshot();
+            }
+            run.job.setStatus(AssessmentJob.Status.CANCELLED);
+            run.job.setFinishedAt(LocalDateTime.now());
+            run.sink.tryEmitComplete();
+        }
+
+        int removed = 0;
+        for (Runnable task : workers.getQueue().toArray(new Runnable[0])) {
+            if (((RouteTask) task).run == run && workers.remove(task)) {
+                removed++;
+            }
+        }
+        queuedRoutes.addAndGet(-removed);
+        return run.snapshot();
+    }
+
+    private List<DeliveryRoute> selectRoutes(AssessmentJob request) {
+        List<DeliveryRoute> selected = new ArrayList<>();
+        for (DeliveryRoute route : routeService.listRoutes()) {
+            if (request.getRouteIds() != null && !request.getRouteIds().contains(route.getRouteId())) {
+                continue;
+            }
+            if (request.getSupplier() != null && !request.getSupplier().equals(route.getSupplier())) {
+                continue;
+            }
+            selected.add(route);
+        }
+        return selected;
+    }
+
+    private RouteAssessment assess(AssessmentJob job, DeliveryRoute route) {
+        RouteAssessment.RouteAssessmentBuilder result = RouteAssessment.builder()
+                .jobId(job.getJobId())
+                .routeId(route.getRouteId())
+                .routeName(route.getName())
+                .supplier(route.getSupplier())
+                .previousRiskLevel(route.getRiskLevel());
+
+        try {
+            if (job.getType() == AssessmentJob.Type.RESCORE) {
+                DeliveryRoute updated = routeService.getRouteById(route.getRouteId());
+                if (updated == null) {
+                    result.error("Route no longer exists");
+                } else {
+                    result.riskLevel(updated.getRiskLevel()).weatherStale(updated.isWeatherStale());
+                }
+            } else {
+                result.riskLevel(riskEnsembleService.scenarioRisk(route, job.getRainfallMultiplier()));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Assessment job {} failed on route {}: {}", job.getJobId(), route.getRouteId(), e.getMessage());
+            result.error(e.getMessage());
+        }
+
+        return result.assessedAt(LocalDateTime.now()).build();
+    }
+
+    private void record(JobRun run, RouteAssessment result) {
+        synchronized (run) {
+            if (run.isFinished()) {
+                return;
+            }
+            run.results.add(result);
+            if (result.getError() != null) {
+                run.job.setFailedRoutes(run.job.getFailedRoutes() + 1);
+            } else {
+                run.job.setCompletedRoutes(run.job.getCompletedRoutes() + 1);
+            }
+            run.sink.tryEmitNext(result);
+
+            if (run.job.getCompletedRoutes() + run.job.getFailedRoutes() == run.job.getTotalRoutes()) {
+                run.job.setStatus(AssessmentJob.Status.COMPLETED);
+                run.job.setFinishedAt(LocalDateTime.now());
+                run.sink.tryEmitComplete();
+            }
+        }
+    }
+
+    private JobRun findRun(String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    /**
+     * Drop finished jobs older than the retention period, then the oldest finished jobs
+     * while more than the retained number are held. Jobs still running are never dropped.
+     */
+    private void evictFinishedJobs() {
+        LocalDateTime expiry = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        Iterator<JobRun> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            JobRun run = iterator.next();
+            synchronized (run) {
+                if (run.isFinished() && (jobs.size() > retainedJobs || run.job.getFinishedAt().isBefore(expiry))) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * A job and the results it has produced. Guarded by its own monitor.
+     */
+    private static final class JobRun {
+        final AssessmentJob job;
+        final List<RouteAssessment> results = new ArrayList<>();
+        // Replays earlier results to late subscribers before following new ones
+        final Sinks.Many<RouteAssessment> sink = Sinks.many().replay().all();
+
+        JobRun(AssessmentJob job) {
+            this.job = job;
+        }
+
+        boolean isFinished() {
+            return job.getStatus() == AssessmentJob.Status.COMPLETED
+                    || job.getStatus() == AssessmentJob.Status.CANCELLED;
+        }
+
+        synchronized boolean isCancelled() {
+            return job.getStatus() == AssessmentJob.Status.CANCELLED;
+        }
+
+        synchronized AssessmentJob snapshot() {
+            return job.toBuilder().build();
+        }
+
+        synchronized void markStarted() {
+            if (job.getStatus() == AssessmentJob.Status.QUEUED) {
+                job.setStatus(AssessmentJob.Status.RUNNING);
+                job.setStartedAt(LocalDateTime.now());
+            }
+        }
+    }
+
+    /**
+     * Assessment of one route, ordered by job priority and then submission.
+     */
+    private final class RouteTask implements Runnable, Comparable<RouteTask> {
+
+        private final JobRun run;
+        private final DeliveryRoute route;
+        private final long sequence;
+
+        RouteTask(JobRun run, DeliveryRoute route, long sequence) {
+            this.run = run;
+            this.route = route;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            queuedRoutes.decrementAndGet();
+            if (run.isCancelled()) {
+                return;
+            }
+            run.markStarted();
+            record(run, weatherService.runInBackground(() -> assess(run.job, route)));
+        }
+
+        @Override
+        public int compareTo(RouteTask other) {
+            int byPriority = run.job.getPriority().compareTo(other.run.job.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.arrowheadnavigator.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an assessment job is refused because the job queue is full.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class AssessmentRejectedException extends RuntimeException {
+
+    public AssessmentRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,152 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.profiling.RouteRiskEvaluationEvent;
+import com.arrowheadnavigator.profiling.SnapshotPublishedEvent;
+import com.arrowheadnavigator.profiling.WeatherLookupEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service for on-demand Java Flight Recorder recordings.
+ * Only one recording runs at a time, and every recording is bounded in both duration
+ * and size, so one left running by mistake stops on its own. Besides the JDK's own
+ * events, recordings include the route risk, weather lookup and snapshot events,
+ * which cost next to nothing while no recording is running.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    // Guarded by this
+    private Recording recording;
+    private Path recordingFile;
+
+    public FlightRecordingService(
+            @Value("${profiling.directory:data/recordings}") String directory,
+            @Value("${profiling.max-duration-seconds:300}") long maxDurationSeconds,
+            @Value("${profiling.max-size-mb:100}") long maxSizeMb) {
+        this.directory = Paths.get(directory);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Start a recording, replacing the previous one and its file.
+     *
+     * @param duration Time after which the recording stops on its own
+     * @param settings JDK settings to use, "default" (low overhead) or "profile" (more detail)
+     * @throws IllegalStateException    if a recording is already running
+     * @throws IllegalArgumentException if the settings name is unknown
+     */
+    public synchronized Map<String, Object> start(Duration duration, String settings) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        discard();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings, e);
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve("arrowhead-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+
+        Recording started = new Recording(configuration);
+        started.setName("arrowhead-on-demand");
+        started.enable(RouteRiskEvaluationEvent.class);
+        started.enable(WeatherLookupEvent.class);
+        started.enable(SnapshotPublishedEvent.class);
+        started.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        started.setMaxSize(maxSizeBytes);
+        started.setToDisk(true);
+        // Written out when the recording stops, whether stopped here or by its duration running out
+        started.setDestination(file);
+        started.start();
+
+        recording = started;
+        recordingFile = file;
+        log.info("Started flight recording {} for {}", file, started.getDuration());
+        return status();
+    }
+
+    /**
+     * Stop the current recording if it is still running.
+     *
+     * @return The recording file, or null if no recording has been started
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording {}", recordingFile);
+        }
+        return Files.exists(recordingFile) ? recordingFile : null;
+    }
+
+    /**
+     * Describe the current or most recent recording.
+     */
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("file", recordingFile.getFileName().toString());
+        return status;
+    }
+
+    /**
+     * Close the previous recording and delete its file.
+     */
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            Files.deleteIfExists(recordingFile);
+            recording = null;
+            recordingFile = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.RiskAlert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alert sink that writes alerts to the application log.
+ */
+@Slf4j
+@Component
+public class LogAlertSink implements AlertSink {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(AlertSubscription subscription, RiskAlert alert) {
+        log.info("Alert {} for subscription {}: route {} at risk {} (was {})",
+                alert.getType(), subscription.getId(), alert.getRouteId(),
+                alert.getRiskLevel(), alert.getPreviousRiskLevel());
+    }
+}
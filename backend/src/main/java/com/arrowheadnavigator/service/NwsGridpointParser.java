@@ -0,0 +1,270 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming parser for weather.gov responses.
+ * Gridpoint documents run to hundreds of kilobytes of hourly series, of which the risk
+ * model needs two. Rather than binding the whole document, this walks the token stream,
+ * skips every layer it does not use, and writes quantitative precipitation and
+ * probability of precipitation straight into hourly primitive arrays. Timestamps are
+ * read from the parser's character buffer, so the values loop allocates nothing.
+ */
+public class NwsGridpointParser {
+
+    // Anchor the series at the first valid time in the document
+    public static final long UNANCHORED = Long.MIN_VALUE;
+
+    private static final double MILLIMETERS_PER_INCH = 25.4;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Read the gridpoint forecast URL out of a /points response.
+     */
+    public String parseForecastGridDataUrl(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("properties".equals(name) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String property = parser.currentName();
+                        parser.nextToken();
+                        if ("forecastGridData".equals(property)) {
+                            return parser.getValueAsString();
+                        }
+                        parser.skipChildren();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        throw new IOException("Points response has no forecastGridData");
+    }
+
+    /**
+     * Reduce a /gridpoints response to hourly precipitation.
+     *
+     * @param startEpochHour First hour of the series, or {@link #UNANCHORED} to start at the
+     *                       document's first valid time
+     * @param hours          Length of the series
+     */
+    public HourlyPrecipitation parseGridpoint(InputStream in, long startEpochHour, int hours) throws IOException {
+        Series series = new Series(startEpochHour, hours);
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("properties".equals(name) && value == JsonToken.START_OBJECT) {
+                    readProperties(parser, series);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return HourlyPrecipitation.builder()
+                .startEpochHour(series.startEpochHour)
+                .rainfallInches(series.rainfall)
+                .probabilityPercent(series.probability)
+                .build();
+    }
+
+    private void readProperties(JsonParser parser, Series series) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("validTimes".equals(name) && value == JsonToken.VALUE_STRING) {
+                if (series.startEpochHour == UNANCHORED) {
+                    series.startEpochHour = Math.floorDiv(readStartSeconds(parser), 3600L);
+                }
+            } else if ("quantitativePrecipitation".equals(name) && value == JsonToken.START_OBJECT) {
+                readLayer(parser, series, series.rainfall, true);
+            } else if ("probabilityOfPrecipitation".equals(name) && value == JsonToken.START_OBJECT) {
+                readLayer(parser, series, series.probability, false);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Read one layer: {"uom": "...", "values": [{"validTime": "...", "value": n}, ...]}.
+     * Amounts are spread evenly over the hours of their interval; probabilities apply to each hour.
+     */
+    private void readLayer(JsonParser parser, Series series, double[] target, boolean amount) throws IOException {
+        // Layers report millimeters, but the unit may follow the values
+        boolean inches = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("uom".equals(name) && value == JsonToken.VALUE_STRING) {
+                inches = parser.getText().endsWith(":in");
+            } else if ("values".equals(name) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readValue(parser, series, target, amount);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (amount && !inches) {
+            for (int h = 0; h < target.length; h++) {
+                target[h] /= MILLIMETERS_PER_INCH;
+            }
+        }
+    }
+
+    private void readValue(JsonParser parser, Series series, double[] target, boolean amount) throws IOException {
+        long startSeconds = UNANCHORED;
+        int durationHours = 1;
+        double value = Double.NaN;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("validTime".equals(name) && token == JsonToken.VALUE_STRING) {
+                startSeconds = readStartSeconds(parser);
+                durationHours = readDurationHours(parser);
+            } else if ("value".equals(name) && token.isNumeric()) {
+                value = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        // Missing values are reported as null
+        if (startSeconds == UNANCHORED || Double.isNaN(value) || durationHours <= 0) {
+            return;
+        }
+        long startHour = Math.floorDiv(startSeconds, 3600L);
+        if (series.startEpochHour == UNANCHORED) {
+            series.startEpochHour = startHour;
+        }
+
+        double perHour = amount ? value / durationHours : value;
+        long first = Math.max(startHour - series.startEpochHour, 0);
+        long last = Math.min(startHour - series.startEpochHour + durationHours, target.length);
+        for (long h = first; h < last; h++) {
+            target[(int) h] = perHour;
+        }
+    }
+
+    /**
+     * Epoch seconds of the start of an ISO 8601 interval such as
+     * "2024-01-15T06:00:00+00:00/PT6H", read without materializing the string.
+     */
+    private static long readStartSeconds(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() < 20) {
+            throw new JsonParseException(parser, "Malformed validTime");
+        }
+
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        int second = digits(text, offset + 17, 2);
+
+        int offsetSeconds = 0;
+        char zone = text[offset + 19];
+        if ((zone == '+' || zone == '-') && parser.getTextLength() >= 25) {
+            offsetSeconds = digits(text, offset + 20, 2) * 3600 + digits(text, offset + 23, 2) * 60;
+            if (zone == '-') {
+                offsetSeconds = -offsetSeconds;
+            }
+        }
+
+        return daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second - offsetSeconds;
+    }
+
+    /**
+     * Whole hours in the duration after the '/' of an interval, e.g. "PT6H" or "P1DT12H".
+     */
+    private static int readDurationHours(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+
+        int i = start;
+        while (i < end && text[i] != '/') {
+            i++;
+        }
+        if (i + 1 >= end || text[i + 1] != 'P') {
+            return 1;
+        }
+
+        int hours = 0;
+        int number = 0;
+        for (i += 2; i < end; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+            } else {
+                if (c == 'D') {
+                    hours += number * 24;
+                } else if (c == 'H') {
+                    hours += number;
+                }
+                number = 0;
+            }
+        }
+        return hours;
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            value = value * 10 + (text[i] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Output arrays for one parse.
+     */
+    private static final class Series {
+        long startEpochHour;
+        final double[] rainfall;
+        final double[] probability;
+
+        Series(long startEpochHour, int hours) {
+            this.startEpochHour = startEpochHour;
+            this.rainfall = new double[hours];
+            this.probability = new double[hours];
+        }
+    }
+}
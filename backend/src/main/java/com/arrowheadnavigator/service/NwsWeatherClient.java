@@ -0,0 +1,288 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Client for the National Weather Service API.
+ * This implementation returns simulated data for development purposes.
+ * It doubles as a local fault-injecting stub: extra latency and a failure rate can be
+ * configured so the caching and circuit breaking in WeatherService can be exercised
+ * against an upstream brownout without touching weather.gov.
+ * With weather.api.live=true, hourly precipitation is read from the real gridpoint
+ * forecast, streamed through {@link NwsGridpointParser} rather than bound to objects.
+ */
+@Component
+public class NwsWeatherClient {
+
+    private final RestTemplate restTemplate;
+    private final String weatherApiBaseUrl;
+    private final boolean live;
+    private final NwsGridpointParser gridpointParser = new NwsGridpointParser();
+
+    // For demo purposes, we'll seed a random generator to get consistent "random" data
+    private final Random random = new Random(42);
+
+    // Fault injection, adjustable at runtime so a brownout can start after caches are warm
+    private volatile long latencyMillis;
+    private volatile double failureRate;
+
+    public NwsWeatherClient(
+            RestTemplate restTemplate,
+            @Value("${weather.api.base-url}") String weatherApiBaseUrl,
+            @Value("${weather.api.live:false}") boolean live,
+            @Value("${weather.stub.latency-ms:0}") long latencyMillis,
+            @Value("${weather.stub.failure-rate:0.0}") double failureRate) {
+        this.restTemplate = restTemplate;
+        this.weatherApiBaseUrl = weatherApiBaseUrl;
+        this.live = live;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Fetch current weather conditions for a location.
+     * This is currently mocked for development.
+     */
+    public WeatherData fetchCurrentWeather(double latitude, double longitude) {
+        // In a real implementation, we'd call the weather API:
+        // String url = weatherApiBaseUrl + "/points/" + latitude + "," + longitude;
+        // ResponseEntity<NwsPointResponse> response = restTemplate.getForEntity(url, NwsPointResponse.class);
+
+        injectFaults();
+        return createMockWeatherData(latitude, longitude);
+    }
+
+    /**
+     * Fetch the daily weather forecast for a location.
+     * This is currently mocked for development.
+     */
+    public List<WeatherForecast> fetchForecast(double latitude, double longitude, int days) {
+        // In a real implementation, we'd call the weather API:
+        // String url = weatherApiBaseUrl + "/points/" + latitude + "," + longitude + "/forecast";
+
+        injectFaults();
+        return createMockForecast(latitude, longitude, days);
+    }
+
+    /**
+     * Fetch expected rainfall for each hour, starting with the current hour.
+     * Mocked for development unless weather.api.live is set.
+     */
+    public HourlyPrecipitation fetchHourlyPrecipitation(double latitude, double longitude, int hours) {
+        long startEpochHour = Math.floorDiv(Instant.now().getEpochSecond(), 3600L);
+        if (!live) {
+            injectFaults();
+            return createMockHourlyPrecipitation(latitude, longitude, startEpochHour, hours);
+        }
+
+        // Both responses are parsed straight off the wire
+        String gridDataUrl = restTemplate.execute(
+                weatherApiBaseUrl + "/points/{latitude},{longitude}", HttpMethod.GET, NwsWeatherClient::acceptGeoJson,
+                response -> gridpointParser.parseForecastGridDataUrl(response.getBody()),
+                String.format("%.4f", latitude), String.format("%.4f", longitude));
+        return restTemplate.execute(gridDataUrl, HttpMethod.GET, NwsWeatherClient::acceptGeoJson,
+                response -> gridpointParser.parseGridpoint(response.getBody(), startEpochHour, hours));
+    }
+
+    /**
+     * Change the simulated upstream latency and failure rate.
+     */
+    public void setFaults(long latencyMillis, double failureRate) {
+        this.latencyMillis = Math.max(0, latencyMillis);
+        this.failureRate = Math.min(1.0, Math.max(0.0, failureRate));
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * weather.gov rejects requests without an identifying User-Agent.
+     */
+    private static void acceptGeoJson(ClientHttpRequest request) {
+        request.getHeaders().set(HttpHeaders.USER_AGENT, "arrowhead-navigator");
+        request.getHeaders().set(HttpHeaders.ACCEPT, "application/geo+json");
+    }
+
+    /**
+     * Delay and fail calls according to the configured faults.
+     */
+    private void injectFaults() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("Interrupted while calling weather.gov");
+            }
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            throw new ResourceAccessException("Simulated weather.gov failure");
+        }
+    }
+
+    /**
+     * Create simulated weather data for development purposes.
+     */
+    private WeatherData createMockWeatherData(double latitude, double longitude) {
+        String[] conditions = {"Clear", "Partly Cloudy", "Cloudy", "Light Rain", "Heavy Rain"};
+
+        // For Seattle area, increase chance of rain
+        boolean isPNW = latitude > 45 && latitude < 49 && longitude > -125 && longitude < -120;
+        int conditionIndex = isPNW ?
+                random.nextInt(2) + 3 : // Favor rainy conditions for PNW
+                random.nextInt(conditions.length);
+
+        double recentRainfall = isPNW ?
+                0.5 + random.nextDouble() * 2.0 : // Higher rainfall for PNW
+                random.nextDouble() * 1.0;
+
+        // Create simulated data
+        return WeatherData.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .location("Location near " + latitude + ", " + longitude)
+                .conditions(conditions[conditionIndex])
+                .description("Simulated weather data for development")
+                .temperatureFahrenheit(45 + random.nextDouble() * 20) // 45-65°F
+                .humidity(70 + random.nextDouble() * 30) // 70-100%
+                .windSpeedMph(5 + random.nextDouble() * 15) // 5-20 mph
+                .windDirection(random.nextInt(360)) // 0-359 degrees
+                .precipitationInches(conditionIndex >= 3 ? 0.1 + random.nextDouble() * 0.5 : 0)
+                .precipitationProbability(conditionIndex >= 2 ? 50 + random.nextDouble() * 50 : 0)
+                .recentRainfallInches(recentRainfall)
+                .floodRiskLevel(calculateSimpleFloodRisk(recentRainfall, conditionIndex))
+                .observationTime(LocalDateTime.now().minusHours(1))
+                .retrievalTime(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Create simulated forecast data for development purposes.
+     */
+    private List<WeatherForecast> createMockForecast(double latitude, double longitude, int days) {
+        String[] conditions = {"Clear", "Partly Cloudy", "Cloudy", "Light Rain", "Heavy Rain"};
+
+        // For Seattle area, increase chance of rain
+        boolean isPNW = latitude > 45 && latitude < 49 && longitude > -125 && longitude < -120;
+
+        List<WeatherForecast> forecast = new ArrayList<>();
+
+        for (int i = 0; i < days; i++) {
+            // More likely to have rain in forecast for Pacific Northwest
+            int conditionIndex = isPNW ?
+                    Math.min(4, random.nextInt(3) + i % 3) : // Progressively more rainy for PNW
+                    random.nextInt(conditions.length);
+
+            double expectedRainfall = conditionIndex >= 3 ?
+                    (conditionIndex == 4 ? 1.0 + random.nextDouble() * 1.5 : 0.1 + random.nextDouble() * 0.7) :
+                    0;
+
+            // Adjust soil saturation based on rainfall
+            double soilSaturation = Math.min(100, 60 + expectedRainfall * 20);
+
+            // Calculate flood risk
+            int floodRisk = calculateSimpleFloodRisk(expectedRainfall, conditionIndex);
+            String riskDesc = getRiskDescription(floodRisk);
+
+            forecast.add(WeatherForecast.builder()
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .forecastDate(LocalDate.now().plusDays(i))
+                    .conditions(conditions[conditionIndex])
+                    .description("Simulated forecast data for development")
+                    .highTemperatureFahrenheit(45 + random.nextDouble() * 20) // 45-65°F
+                    .lowTemperatureFahrenheit(35 + random.nextDouble() * 15) // 35-50°F
+                    .precipitationProbability(conditionIndex >= 2 ? 50 + random.nextDouble() * 50 : 0)
+                    .expectedRainfallInches(expectedRainfall)
+                    .humidity(70 + random.nextDouble() * 30) // 70-100%
+                    .windSpeedMph(5 + random.nextDouble() * 15) // 5-20 mph
+                    .floodRiskLevel(floodRisk)
+                    .floodRiskDescription(riskDesc)
+                    .soilSaturationPct(soilSaturation)
+                    .retrievalTime(LocalDateTime.now())
+                    .build());
+        }
+
+        return forecast;
+    }
+
+    /**
+     * Create a simulated hourly series by spreading the mock daily forecast over its hours.
+     */
+    private HourlyPrecipitation createMockHourlyPrecipitation(double latitude, double longitude,
+                                                              long startEpochHour, int hours) {
+        int startHour = LocalDateTime.now().getHour();
+        List<WeatherForecast> forecast = createMockForecast(latitude, longitude, (startHour + hours) / 24 + 1);
+
+        double[] rainfall = new double[hours];
+        double[] probability = new double[hours];
+        for (int h = 0; h < hours; h++) {
+            WeatherForecast day = forecast.get((startHour + h) / 24);
+            // Vary intensity through the day while keeping the daily total about the same
+            rainfall[h] = day.getExpectedRainfallInches() / 24 * (0.5 + random.nextDouble());
+            probability[h] = day.getPrecipitationProbability();
+        }
+
+        return HourlyPrecipitation.builder()
+                .startEpochHour(startEpochHour)
+                .rainfallInches(rainfall)
+                .probabilityPercent(probability)
+                .build();
+    }
+
+    /**
+     * Simple formula to calculate flood risk based on rainfall and conditions.
+     * This is a simplified algorithm for development purposes.
+     */
+    private int calculateSimpleFloodRisk(double rainfall, int conditionIndex) {
+        // Start with base risk from rainfall amount
+        double baseRisk = rainfall * 2.5; // 0.5" rain = risk level 1.25, 2" rain = risk level 5
+
+        // Adjust for weather conditions
+        double conditionMultiplier = 1.0;
+        if (conditionIndex == 4) { // Heavy rain
+            conditionMultiplier = 1.5;
+        } else if (conditionIndex == 3) { // Light rain
+            conditionMultiplier = 1.2;
+        }
+
+        int riskLevel = (int) Math.min(10, Math.round(baseRisk * conditionMultiplier));
+        return Math.max(0, riskLevel); // Ensure risk is between 0-10
+    }
+
+    /**
+     * Get a description of flood risk based on the numeric level.
+     */
+    private String getRiskDescription(int riskLevel) {
+        if (riskLevel >= 8) {
+            return "High risk of flooding. Consider alternate routes.";
+        } else if (riskLevel >= 5) {
+            return "Moderate flood risk. Monitor conditions.";
+        } else if (riskLevel >= 2) {
+            return "Low flood risk. Exercise normal caution.";
+        } else {
+            return "Minimal flood risk.";
+        }
+    }
+}
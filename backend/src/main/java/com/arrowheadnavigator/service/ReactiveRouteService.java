@@ -0,0 +1,92 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.WaypointRiskCache;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.profiling.RouteRiskEvaluationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking route risk assessment.
+ * Waypoint lookups for a route are issued together and composed as they complete,
+ * so many routes can be in flight at once without a thread per request.
+ */
+@Slf4j
+@Service
+public class ReactiveRouteService {
+
+    private final RouteService routeService;
+    private final ReactiveWeatherService weatherService;
+
+    @Autowired
+    public ReactiveRouteService(RouteService routeService, ReactiveWeatherService weatherService) {
+        this.routeService = routeService;
+        this.weatherService = weatherService;
+    }
+
+    /**
+     * Get all delivery routes with up-to-date risk, in their stored order.
+     */
+    public Flux<DeliveryRoute> getAllRoutes() {
+        return Flux.fromIterable(routeService.listRoutes())
+                .flatMapSequential(this::updateRouteRisk);
+    }
+
+    /**
+     * Get a specific route by ID with up-to-date risk.
+     */
+    public Mono<DeliveryRoute> getRouteById(String routeId) {
+        return Mono.justOrEmpty(routeService.findRoute(routeId))
+                .flatMap(this::updateRouteRisk);
+    }
+
+    /**
+     * Update the risk assessment for a route.
+     * If weather cannot be fetched, the previous assessment is kept and flagged stale.
+     */
+    private Mono<DeliveryRoute> updateRouteRisk(DeliveryRoute route) {
+        return Mono.defer(() -> {
+            RouteRiskEvaluationEvent event = new RouteRiskEvaluationEvent();
+            event.begin();
+
+            RouteWaypoint start = route.getWaypoints().get(0);
+
+            Mono<int[]> pointRisks = Flux.fromIterable(route.getWaypoints())
+                    .flatMapSequential(this::assessWaypointRisk)
+                    .collectList()
+                    .map(risks -> risks.stream().mapToInt(Integer::intValue).toArray());
+
+            return Mono.zip(
+                            pointRisks,
+                            weatherService.getCurrentWeather(start.getLatitude(), start.getLongitude()),
+                            weatherService.calculateFloodRisk(start.getLatitude(), start.getLongitude()))
+                    .map(assessment -> {
+                        routeService.applyRiskAssessment(route,
+                                assessment.getT1(), assessment.getT2(), assessment.getT3());
+                        return route;
+                    })
+                    .onErrorResume(WeatherUnavailableException.class, e -> {
+                        log.warn("Keeping previous risk for route {}: {}", route.getRouteId(), e.getMessage());
+                        route.setWeatherStale(true);
+                        return Mono.just(route);
+                    })
+                    .doOnNext(assessed -> RouteService.commitEvaluation(event, assessed));
+        });
+    }
+
+    /**
+     * Risk at a waypoint, through the same waypoint cache as the blocking path.
+     */
+    private Mono<Integer> assessWaypointRisk(RouteWaypoint waypoint) {
+        int cachedRisk = routeService.cachedWaypointRisk(waypoint);
+        if (cachedRisk != WaypointRiskCache.MISSING) {
+            return Mono.just(cachedRisk);
+        }
+        return weatherService.assessFloodRisk(waypoint.getLatitude(), waypoint.getLongitude())
+                .map(floodRisk -> routeService.waypointRisk(waypoint, floodRisk));
+    }
+}
@@ -0,0 +1,53 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking view of {@link WeatherService}.
+ * Shares its caches and upstream protection; a caller waiting on weather.gov
+ * holds no thread, only a pending subscription.
+ */
+@Service
+public class ReactiveWeatherService {
+
+    private final WeatherService weatherService;
+
+    @Autowired
+    public ReactiveWeatherService(WeatherService weatherService) {
+        this.weatherService = weatherService;
+    }
+
+    /**
+     * Get current weather conditions for a location.
+     */
+    public Mono<WeatherData> getCurrentWeather(double latitude, double longitude) {
+        return Mono.fromFuture(() -> weatherService.getCurrentWeatherAsync(latitude, longitude));
+    }
+
+    /**
+     * Get weather forecast for a location, one element per day.
+     */
+    public Flux<WeatherForecast> getWeatherForecast(double latitude, double longitude, int days) {
+        return Mono.fromFuture(() -> weatherService.getWeatherForecastAsync(latitude, longitude, days))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    /**
+     * Calculate flood risk for a location.
+     */
+    public Mono<Integer> calculateFloodRisk(double latitude, double longitude) {
+        return Mono.fromFuture(() -> weatherService.calculateFloodRiskAsync(latitude, longitude));
+    }
+
+    /**
+     * Calculate flood risk for a location, noting whether it came from fresh weather.
+     */
+    public Mono<WeatherService.FloodRisk> assessFloodRisk(double latitude, double longitude) {
+        return Mono.fromFuture(() -> weatherService.assessFloodRiskAsync(latitude, longitude));
+    }
+}
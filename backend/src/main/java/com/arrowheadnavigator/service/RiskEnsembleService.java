@@ -0,0 +1,305 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.RouteRiskDistribution;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import com.arrowheadnavigator.util.GeoCell;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service for Monte Carlo risk distributions.
+ * Forecast rainfall for every cell on a route is perturbed many times and each sample
+ * is pushed through the same weighting as the route's regular assessment, giving a
+ * spread of risk levels instead of a single number. Weather is looked up once per cell
+ * before sampling, so the fork-join pool does pure arithmetic over routes x samples,
+ * with each subtask drawing from its own split of the random generator.
+ */
+@Slf4j
+@Service
+public class RiskEnsembleService {
+
+    // Samples per leaf task; small enough to balance, large enough to amortize forking
+    private static final int LEAF_SAMPLES = 256;
+    private static final int RISK_LEVELS = 11;
+
+    // Days of forecast rainfall that feed flood risk, as in WeatherService
+    private static final int FORECAST_DAYS = 3;
+
+    private final RouteService routeService;
+    private final WeatherService weatherService;
+    private final ForkJoinPool samplingPool;
+
+    // Log-normal spread of forecast rainfall: shared by the whole route, and per cell
+    private final double regionalSpread;
+    private final double localSpread;
+
+    public RiskEnsembleService(
+            RouteService routeService,
+            WeatherService weatherService,
+            @Value("${risk.ensemble.regional-spread:0.5}") double regionalSpread,
+            @Value("${risk.ensemble.local-spread:0.25}") double localSpread,
+            @Value("${risk.ensemble.parallelism:0}") int parallelism) {
+        this.routeService = routeService;
+        this.weatherService = weatherService;
+        this.regionalSpread = regionalSpread;
+        this.localSpread = localSpread;
+        this.samplingPool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("risk-ensemble-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null, false);
+    }
+
+    /**
+     * Sample the risk distribution for one route.
+     *
+     * @return The distribution, or null if the route does not exist
+     * @throws WeatherUnavailableException if weather for the route cannot be fetched
+     */
+    public RouteRiskDistribution simulateRoute(String routeId, int samples, int riskThreshold) {
+        DeliveryRoute route = routeService.findRoute(routeId);
+        if (route == null || route.getWaypoints() == null || route.getWaypoints().isEmpty()) {
+            return null;
+        }
+
+        return simulate(List.of(prepare(route)), samples, riskThreshold).get(0);
+    }
+
+    /**
+     * Sample risk distributions for every route in the fleet.
+     * Routes whose weather cannot be fetched are left out.
+     */
+    public List<RouteRiskDistribution> simulateFleet(int samples, int riskThreshold) {
+        List<RouteInputs> inputs = new ArrayList<>();
+        for (DeliveryRoute route : routeService.listRoutes()) {
+            if (route.getWaypoints() == null || route.getWaypoints().isEmpty()) {
+                continue;
+            }
+            try {
+                inputs.add(prepare(route));
+            } catch (WeatherUnavailableException e) {
+                log.warn("Leaving route {} out of the ensemble: {}", route.getRouteId(), e.getMessage());
+            }
+        }
+
+        return simulate(inputs, samples, riskThreshold);
+    }
+
+    private List<RouteRiskDistribution> simulate(List<RouteInputs> inputs, int samples, int riskThreshold) {
+        SplittableRandom root = new SplittableRandom();
+        List<SampleTask> tasks = new ArrayList<>(inputs.size());
+        for (RouteInputs input : inputs) {
+            tasks.add(new SampleTask(input, samples, root.split()));
+        }
+
+        samplingPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<RouteRiskDistribution> distributions = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            distributions.add(summarize(inputs.get(i), tasks.get(i).join(), samples, riskThreshold));
+        }
+        return distributions;
+    }
+
+    /**
+     * Look up the weather behind a route once per distinct cell.
+     * The first cell is always the one containing the first waypoint.
+     */
+    private RouteInputs prepare(DeliveryRoute route) {
+        Map<Long, double[]> rainfallByCell = new LinkedHashMap<>();
+        for (RouteWaypoint waypoint : route.getWaypoints()) {
+            long cellKey = GeoCell.key(waypoint.getLatitude(), waypoint.getLongitude());
+            if (!rainfallByCell.containsKey(cellKey)) {
+                WeatherData current = weatherService.getCurrentWeather(waypoint.getLatitude(), waypoint.getLongitude());
+                double expected = weatherService
+                        .getWeatherForecast(waypoint.getLatitude(), waypoint.getLongitude(), FORECAST_DAYS)
+                        .stream()
+                        .mapToDouble(WeatherForecast::getExpectedRainfallInches)
+                        .sum();
+                rainfallByCell.put(cellKey, new double[]{current.getRecentRainfallInches(), expected});
+            }
+        }
+
+        double[] recent = new double[rainfallByCell.size()];
+        double[] expected = new double[rainfallByCell.size()];
+        int cell = 0;
+        for (double[] rainfall : rainfallByCell.values()) {
+            recent[cell] = rainfall[0];
+            expected[cell] = rainfall[1];
+            cell++;
+        }
+
+        RouteWaypoint first = route.getWaypoints().get(0);
+        int currentWeatherRisk = weatherService.getCurrentWeather(first.getLatitude(), first.getLongitude())
+                .getFloodRiskLevel();
+
+        return new RouteInputs(route, currentWeatherRisk, recent, expected);
+    }
+
+    /**
+     * Route risk for one set of cell rainfall multipliers, weighted as in RouteService.
+     */
+    private int sampleRisk(RouteInputs input, SplittableRandom random) {
+        double regional = regionalSpread * random.nextGaussian();
+        // Keep the mean multiplier at one so the ensemble is centered on the forecast
+        double meanCorrection = (regionalSpread * regionalSpread + localSpread * localSpread) / 2;
+
+        int forecastRisk = 0;
+        int maxCellRisk = 0;
+        for (int cell = 0; cell < input.recent().length; cell++) {
+            double multiplier = Math.exp(regional + localSpread * random.nextGaussian() - meanCorrection);
+            int cellRisk = weatherService.rainfallToRisk(input.recent()[cell] + input.expected()[cell] * multiplier);
+            if (cell == 0) {
+                forecastRisk = cellRisk;
+            }
+            maxCellRisk = Math.max(maxCellRisk, cellRisk);
+        }
+
+        return combine(input, forecastRisk, maxCellRisk);
+    }
+
+    /**
+     * Risk for a route if forecast rainfall everywhere on it were scaled by a fixed multiplier.
+     * Used for what-if scenarios; the route itself is not modified.
+     *
+     * @throws WeatherUnavailableException if weather for the route cannot be fetched
+     */
+    public int scenarioRisk(DeliveryRoute route, double rainfallMultiplier) {
+        if (route.getWaypoints() == null || route.getWaypoints().isEmpty()) {
+            return route.getRiskLevel();
+        }
+
+        return scaledRisk(prepare(route), rainfallMultiplier);
+    }
+
+    /**
+     * Route risk with forecast rainfall in every cell scaled by the same multiplier.
+     */
+    private int scaledRisk(RouteInputs input, double rainfallMultiplier) {
+        int forecastRisk = 0;
+        int maxCellRisk = 0;
+        for (int cell = 0; cell < input.recent().length; cell++) {
+            int cellRisk = weatherService.rainfallToRisk(
+                    input.recent()[cell] + input.expected()[cell] * rainfallMultiplier);
+            if (cell == 0) {
+                forecastRisk = cellRisk;
+            }
+            maxCellRisk = Math.max(maxCellRisk, cellRisk);
+        }
+        return combine(input, forecastRisk, maxCellRisk);
+    }
+
+    private static int combine(RouteInputs input, int forecastRisk, int maxCellRisk) {
+        return (int) Math.round(input.currentWeatherRisk() * RouteService.CURRENT_WEATHER_WEIGHT
+                + forecastRisk * RouteService.FORECAST_WEIGHT
+                + maxCellRisk * RouteService.TERRAIN_WEIGHT);
+    }
+
+    private RouteRiskDistribution summarize(RouteInputs input, int[] histogram, int samples, int riskThreshold) {
+        List<Double> levelProbabilities = new ArrayList<>(RISK_LEVELS);
+        double total = 0;
+        int exceeding = 0;
+        for (int level = 0; level < RISK_LEVELS; level++) {
+            levelProbabilities.add((double) histogram[level] / samples);
+            total += (double) level * histogram[level];
+            if (level >= riskThreshold) {
+                exceeding += histogram[level];
+            }
+        }
+
+        return RouteRiskDistribution.builder()
+                .routeId(input.route().getRouteId())
+                .routeName(input.route().getName())
+                .samples(samples)
+                // From the same inputs as the samples, so the two are comparable
+                .expectedRiskLevel(scaledRisk(input, 1.0))
+                .meanRiskLevel(total / samples)
+                .p50RiskLevel(percentile(histogram, samples, 0.5))
+                .p90RiskLevel(percentile(histogram, samples, 0.9))
+                .riskThreshold(riskThreshold)
+                .exceedanceProbability((double) exceeding / samples)
+                .levelProbabilities(levelProbabilities)
+                .build();
+    }
+
+    /**
+     * Lowest risk level that at least the given fraction of samples fall at or below.
+     */
+    private static int percentile(int[] histogram, int samples, double fraction) {
+        long needed = (long) Math.ceil(fraction * samples);
+        long cumulative = 0;
+        for (int level = 0; level < histogram.length; level++) {
+            cumulative += histogram[level];
+            if (cumulative >= needed) {
+                return level;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        samplingPool.shutdownNow();
+    }
+
+    /**
+     * Everything sampling needs for one route, as primitive arrays indexed by cell.
+     */
+    private record RouteInputs(DeliveryRoute route, int currentWeatherRisk, double[] recent, double[] expected) {
+    }
+
+    /**
+     * Samples for one route, split in half until the halves are small enough to run directly.
+     * Each half gets its own split of the random generator, so no generator is shared between threads.
+     */
+    private final class SampleTask extends RecursiveTask<int[]> {
+
+        private final RouteInputs input;
+        private final int samples;
+        private final SplittableRandom random;
+
+        SampleTask(RouteInputs input, int samples, SplittableRandom random) {
+            this.input = input;
+            this.samples = samples;
+            this.random = random;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (samples <= LEAF_SAMPLES) {
+                int[] histogram = new int[RISK_LEVELS];
+                for (int i = 0; i < samples; i++) {
+                    histogram[sampleRisk(input, random)]++;
+                }
+                return histogram;
+            }
+
+            SampleTask left = new SampleTask(input, samples / 2, random.split());
+            left.fork();
+            int[] histogram = new SampleTask(input, samples - samples / 2, random).compute();
+            int[] leftHistogram = left.join();
+            for (int level = 0; level < RISK_LEVELS; level++) {
+                histogram[level] += leftHistogram[level];
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.util.GeoCell;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for rendering flood risk heatmap tiles over the Pacific Northwest.
+ * Tiles use the standard Web Mercator z/x/y scheme and are built from the cell-level
+ * flood risk WeatherService caches, so panning the map re-uses work that is already done.
+ * Low zoom tiles are drawn on a coarser grid, each coarse cell showing the highest risk
+ * known for the cells inside it, so a tile never needs more than a few hundred evaluations.
+ * A tile is dropped as soon as the risk of any cell it was drawn from is invalidated.
+ */
+@Service
+public class RiskTileService {
+
+    public static final int MAX_ZOOM = 18;
+
+    private static final int TILE_SIZE = 256;
+    private static final int SAMPLES_PER_AXIS = 32;
+    private static final int BLOCK_SIZE = TILE_SIZE / SAMPLES_PER_AXIS;
+
+    // Grid cells per tile axis before a coarser grid is used; grid level n is 2^n cells wide
+    private static final int MAX_CELLS_PER_AXIS = 16;
+    private static final int MAX_GRID_LEVEL = 12;
+
+    // Translucent grey for cells whose risk could not be evaluated, so they are not read as no risk
+    static final int UNKNOWN_COLOR = 0x809E9E9E;
+
+    // Same area WeatherService treats as the Pacific Northwest
+    private static final double MIN_LATITUDE = 45;
+    private static final double MAX_LATITUDE = 49;
+    private static final double MIN_LONGITUDE = -125;
+    private static final double MAX_LONGITUDE = -120;
+
+    private final WeatherService weatherService;
+    private final long ttlMillis;
+    private final ExecutorService renderPool;
+
+    // Shared by all renders so cold tiles cannot flood the weather.gov bulkhead
+    private final Semaphore evaluationPermits;
+
+    // Keyed by region (grid level and grid cell); guarded by tileCache
+    private final Map<Long, Set<Long>> tilesByRegion = new HashMap<>();
+    private final Map<Long, Set<PendingRender>> pendingByRegion = new HashMap<>();
+    private final Map<Long, CompletableFuture<Tile>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, TileEntry> tileCache;
+
+    private final Tile emptyTile;
+
+    public RiskTileService(
+            WeatherService weatherService,
+            @Value("${risk.tiles.cache-size:2048}") int cacheSize,
+            @Value("${risk.tiles.ttl-minutes:15}") long ttlMinutes,
+            @Value("${risk.tiles.max-concurrent-evaluations:16}") int maxConcurrentEvaluations) {
+        this.weatherService = weatherService;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.evaluationPermits = new Semaphore(maxConcurrentEvaluations);
+        this.tileCache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TileEntry> eldest) {
+                if (size() > cacheSize) {
+                    unregisterTile(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "risk-tile-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.emptyTile = new Tile(encode(new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB)), true);
+
+        // Weather refreshes, other replicas and manual invalidation all land here
+        weatherService.addFloodRiskInvalidationListener(this::evictTiles);
+    }
+
+    /**
+     * Check that tile coordinates address a real tile at the given zoom level.
+     */
+    public boolean isValidTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            return false;
+        }
+        int tilesPerAxis = 1 << z;
+        return x >= 0 && x < tilesPerAxis && y >= 0 && y < tilesPerAxis;
+    }
+
+    /**
+     * Get a PNG heatmap tile, rendering it only if it is not already cached.
+     * A tile with cells that could not be evaluated yet is marked incomplete.
+     *
+     * @throws WeatherUnavailableException if the tile could not be rendered
+     */
+    public Tile getTile(int z, int x, int y) {
+        if (!intersectsCoverage(z, x, y)) {
+            return emptyTile;
+        }
+
+        long tileKey = tileKey(z, x, y);
+        synchronized (tileCache) {
+            TileEntry cached = tileCache.get(tileKey);
+            if (cached != null && !isExpired(cached.renderedAt())) {
+                return new Tile(cached.png(), true);
+            }
+        }
+
+        // Concurrent requests for the same tile share one render
+        CompletableFuture<Tile> render = new CompletableFuture<>();
+        CompletableFuture<Tile> existing = inFlight.putIfAbsent(tileKey, render);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // Waiters fail the same way as the request that rendered the tile
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            render.complete(renderTile(tileKey, z, x, y));
+        } catch (RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(tileKey);
+        }
+        return render.join();
+    }
+
+    /**
+     * Drop the cached risk for the cell containing a location,
+     * along with every tile and waypoint score that was drawn from it.
+     */
+    public void invalidateCell(double latitude, double longitude) {
+        // Tiles are evicted by the invalidation listener
+        weatherService.invalidateFloodRisk(latitude, longitude);
+    }
+
+    /**
+     * Drop every tile drawn from a cell, at every grid level, and keep renders
+     * that are still drawing from it out of the cache.
+     */
+    private void evictTiles(long cellKey) {
+        synchronized (tileCache) {
+            for (int level = 0; level <= MAX_GRID_LEVEL; level++) {
+                long regionKey = regionKey(level, gridKey(cellKey, level));
+
+                Set<PendingRender> pending = pendingByRegion.get(regionKey);
+                if (pending != null) {
+                    pending.forEach(render -> render.invalidated = true);
+                }
+
+                Set<Long> tiles = tilesByRegion.remove(regionKey);
+                if (tiles == null) {
+                    continue;
+                }
+                for (Long tileKey : tiles) {
+                    TileEntry removed = tileCache.remove(tileKey);
+                    if (removed != null) {
+                        unregisterTile(tileKey, removed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Render a tile, evaluating grid cells with no known risk in parallel.
+     * Only as many cells are evaluated as there are free permits; a tile left incomplete
+     * is not cached and shows the missing cells as unknown, so a cold tile fills in over
+     * successive requests.
+     */
+    private Tile renderTile(long tileKey, int z, int x, int y) {
+        int level = gridLevel(z);
+        long[] sampleCells = new long[SAMPLES_PER_AXIS * SAMPLES_PER_AXIS];
+        boolean[] covered = new boolean[sampleCells.length];
+        Set<Long> distinctCells = new LinkedHashSet<>();
+
+        for (int row = 0; row < SAMPLES_PER_AXIS; row++) {
+            double latitude = pixelToLatitude(z, y * TILE_SIZE + (row + 0.5) * BLOCK_SIZE);
+            for (int col = 0; col < SAMPLES_PER_AXIS; col++) {
+                double longitude = pixelToLongitude(z, x * TILE_SIZE + (col + 0.5) * BLOCK_SIZE);
+                int index = row * SAMPLES_PER_AXIS + col;
+                if (isCovered(latitude, longitude)) {
+                    sampleCells[index] = GeoCell.key(latitude, longitude, gridDegrees(level));
+                    covered[index] = true;
+                    distinctCells.add(sampleCells[index]);
+                }
+            }
+        }
+
+        Map<Long, Integer> knownRisks = knownRisks(level, distinctCells);
+        Map<Long, Integer> evaluated = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> evaluations = new ArrayList<>();
+        for (Long gridKey : distinctCells) {
+            if (knownRisks.containsKey(gridKey) || !evaluationPermits.tryAcquire()) {
+                continue;
+            }
+            evaluations.add(CompletableFuture.runAsync(() -> {
+                try {
+                    Integer risk = evaluateCell(representativeCell(gridKey, level));
+                    if (risk != null) {
+                        evaluated.put(gridKey, risk);
+                    }
+                } finally {
+                    evaluationPermits.release();
+                }
+            }, renderPool));
+        }
+        CompletableFuture.allOf(evaluations.toArray(new CompletableFuture[0])).join();
+
+        // Evaluating a cell refreshes its weather, which invalidates it; only later invalidations count
+        long[] regions = distinctCells.stream().mapToLong(gridKey -> regionKey(level, gridKey)).toArray();
+        PendingRender pending = new PendingRender();
+        synchronized (tileCache) {
+            for (long regionKey : regions) {
+                pendingByRegion.computeIfAbsent(regionKey, k -> new HashSet<>()).add(pending);
+            }
+        }
+
+        try {
+            // Stale risk still counts; it is invalidated, and the tile with it, once its weather refreshes
+            knownRisks = knownRisks(level, distinctCells);
+            boolean complete = knownRisks.size() == distinctCells.size();
+
+            BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            int[] block = new int[BLOCK_SIZE * BLOCK_SIZE];
+            for (int index = 0; index < sampleCells.length; index++) {
+                if (!covered[index]) {
+                    continue;
+                }
+                Integer risk = knownRisks.getOrDefault(sampleCells[index], evaluated.get(sampleCells[index]));
+                Arrays.fill(block, risk != null ? riskColor(risk) : UNKNOWN_COLOR);
+                image.setRGB((index % SAMPLES_PER_AXIS) * BLOCK_SIZE, (index / SAMPLES_PER_AXIS) * BLOCK_SIZE,
+                        BLOCK_SIZE, BLOCK_SIZE, block, 0, BLOCK_SIZE);
+            }
+            byte[] png = encode(image);
+
+            synchronized (tileCache) {
+                // Tiles with cells that could not be evaluated are retried on the next request
+                if (complete && !pending.invalidated) {
+                    for (long regionKey : regions) {
+                        tilesByRegion.computeIfAbsent(regionKey, k -> new HashSet<>()).add(tileKey);
+                    }
+                    tileCache.put(tileKey, new TileEntry(png, regions, System.currentTimeMillis()));
+                }
+            }
+            return new Tile(png, complete);
+        } finally {
+            synchronized (tileCache) {
+                for (long regionKey : regions) {
+                    Set<PendingRender> renders = pendingByRegion.get(regionKey);
+                    if (renders != null && renders.remove(pending) && renders.isEmpty()) {
+                        pendingByRegion.remove(regionKey);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Risk already cached for each grid cell, stale or not. A coarse grid cell takes
+     * the highest risk cached for any cell inside it.
+     */
+    private Map<Long, Integer> knownRisks(int level, Set<Long> gridKeys) {
+        Map<Long, Integer> known = new HashMap<>();
+        if (level == 0) {
+            for (Long cellKey : gridKeys) {
+                Integer risk = weatherService.lastKnownFloodRisk(GeoCell.latitude(cellKey), GeoCell.longitude(cellKey));
+                if (risk != null) {
+                    known.put(cellKey, risk);
+                }
+            }
+            return known;
+        }
+
+        weatherService.knownFloodRisks().forEach((cellKey, risk) -> {
+            long gridKey = gridKey(cellKey, level);
+            if (gridKeys.contains(gridKey)) {
+                known.merge(gridKey, risk, Math::max);
+            }
+        });
+        return known;
+    }
+
+    /**
+     * The cell evaluated for a grid cell with no known risk: the one at its center,
+     * moved inside the coverage area for coarse cells that only partly overlap it.
+     */
+    private static long representativeCell(long gridKey, int level) {
+        double latitude = GeoCell.latitude(gridKey, gridDegrees(level));
+        double longitude = GeoCell.longitude(gridKey, gridDegrees(level));
+        return GeoCell.key(
+                Math.min(MAX_LATITUDE, Math.max(MIN_LATITUDE, latitude)),
+                Math.min(MAX_LONGITUDE, Math.max(MIN_LONGITUDE, longitude)));
+    }
+
+    /**
+     * Evaluate one cell, or return null if its weather is unavailable.
+     */
+    private Integer evaluateCell(long cellKey) {
+        try {
+            return weatherService.calculateFloodRisk(GeoCell.latitude(cellKey), GeoCell.longitude(cellKey));
+        } catch (WeatherUnavailableException e) {
+            return null;
+        }
+    }
+
+    private void unregisterTile(long tileKey, TileEntry entry) {
+        for (long regionKey : entry.regions()) {
+            Set<Long> tiles = tilesByRegion.get(regionKey);
+            if (tiles != null && tiles.remove(tileKey) && tiles.isEmpty()) {
+                tilesByRegion.remove(regionKey);
+            }
+        }
+    }
+
+    /**
+     * The coarsest grid a tile at this zoom needs, so it spans at most MAX_CELLS_PER_AXIS grid cells.
+     */
+    private static int gridLevel(int z) {
+        double tileDegrees = 360.0 / (1 << z);
+        int level = 0;
+        while (level < MAX_GRID_LEVEL && tileDegrees / gridDegrees(level) > MAX_CELLS_PER_AXIS) {
+            level++;
+        }
+        return level;
+    }
+
+    private static double gridDegrees(int level) {
+        return GeoCell.CELL_DEGREES * (1 << level);
+    }
+
+    private static long gridKey(long cellKey, int level) {
+        if (level == 0) {
+            return cellKey;
+        }
+        return GeoCell.key(GeoCell.latitude(cellKey), GeoCell.longitude(cellKey), gridDegrees(level));
+    }
+
+    private static long regionKey(int level, long gridKey) {
+        return ((long) level << 56) | gridKey;
+    }
+
+    private boolean isExpired(long timestamp) {
+        return System.currentTimeMillis() - timestamp > ttlMillis;
+    }
+
+    private boolean isCovered(double latitude, double longitude) {
+        return latitude >= MIN_LATITUDE && latitude <= MAX_LATITUDE
+                && longitude >= MIN_LONGITUDE && longitude <= MAX_LONGITUDE;
+    }
+
+    private boolean intersectsCoverage(int z, int x, int y) {
+        double north = pixelToLatitude(z, (double) y * TILE_SIZE);
+        double south = pixelToLatitude(z, (double) (y + 1) * TILE_SIZE);
+        double west = pixelToLongitude(z, (double) x * TILE_SIZE);
+        double east = pixelToLongitude(z, (double) (x + 1) * TILE_SIZE);
+        return south <= MAX_LATITUDE && north >= MIN_LATITUDE
+                && west <= MAX_LONGITUDE && east >= MIN_LONGITUDE;
+    }
+
+    private static double pixelToLongitude(int z, double pixelX) {
+        return pixelX / ((double) TILE_SIZE * (1 << z)) * 360.0 - 180.0;
+    }
+
+    private static double pixelToLatitude(int z, double pixelY) {
+        double n = Math.PI * (1 - 2 * pixelY / ((double) TILE_SIZE * (1 << z)));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    private static long tileKey(int z, int x, int y) {
+        return ((long) z << 58) | ((long) x << 29) | y;
+    }
+
+    /**
+     * Map a 0-10 risk level to a translucent ARGB color.
+     * Uses the same thresholds as the route colors on the map screen.
+     */
+    private static int riskColor(int riskLevel) {
+        if (riskLevel <= 0) {
+            return 0;
+        }
+        int alpha = Math.min(200, 60 + riskLevel * 14);
+        int rgb;
+        if (riskLevel >= 7) {
+            rgb = 0xD32F2F; // red
+        } else if (riskLevel >= 4) {
+            rgb = 0xFFA000; // orange
+        } else {
+            rgb = 0x388E3C; // green
+        }
+        return (alpha << 24) | rgb;
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode risk tile", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * A rendered PNG tile, and whether every cell in it had a known risk.
+     */
+    public record Tile(byte[] png, boolean complete) {
+    }
+
+    private record TileEntry(byte[] png, long[] regions, long renderedAt) {
+    }
+
+    /**
+     * A render that has read cell risk but not yet cached its tile.
+     */
+    private static final class PendingRender {
+        private boolean invalidated;
+    }
+}
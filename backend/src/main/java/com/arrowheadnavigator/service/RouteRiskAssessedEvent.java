@@ -0,0 +1,15 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.DeliveryRoute;
+
+import java.util.List;
+
+/**
+ * Published every time a route's risk is reassessed.
+ *
+ * @param route             The route, with its new risk level applied
+ * @param previousRiskLevel Risk level before this assessment
+ * @param newRiskPoints     Sequence numbers of waypoints that have just become risk points
+ */
+public record RouteRiskAssessedEvent(DeliveryRoute route, int previousRiskLevel, List<Integer> newRiskPoints) {
+}
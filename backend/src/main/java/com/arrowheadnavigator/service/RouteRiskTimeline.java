@@ -0,0 +1,277 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.DepartureRisk;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.util.GeoCell;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Time-dependent risk model for a single route.
+ * Each waypoint is placed at its ETA and scored on the rainfall that fell in the
+ * 24 hours before the truck gets there. Weather is fetched once per cell up front
+ * and turned into prefix sums, so scoring a departure time needs no further lookups.
+ */
+class RouteRiskTimeline {
+
+    // Rainfall in this trailing window drives the risk at a waypoint
+    private static final int EXPOSURE_HOURS = 24;
+
+    // Risk levels run from 0 to 10
+    private static final int RISK_LEVELS = 11;
+
+    private final DeliveryRoute route;
+    private final WeatherService weatherService;
+    private final LocalDateTime origin;
+    private final List<RouteWaypoint> waypoints;
+    private final double[] etaOffsetMinutes;
+    private final double[][] rainfallPrefix;
+    private final double[] recentRainfall;
+
+    private RouteRiskTimeline(DeliveryRoute route, WeatherService weatherService, LocalDateTime origin,
+                              List<RouteWaypoint> waypoints, double[] etaOffsetMinutes,
+                              double[][] rainfallPrefix, double[] recentRainfall) {
+        this.route = route;
+        this.weatherService = weatherService;
+        this.origin = origin;
+        this.waypoints = waypoints;
+        this.etaOffsetMinutes = etaOffsetMinutes;
+        this.rainfallPrefix = rainfallPrefix;
+        this.recentRainfall = recentRainfall;
+    }
+
+    /**
+     * Build a timeline covering departures up to {@code latestDeparture}.
+     *
+     * @throws IllegalArgumentException if {@code latestDeparture} is past the end of the hourly forecast
+     */
+    static RouteRiskTimeline build(DeliveryRoute route, WeatherService weatherService, LocalDateTime latestDeparture) {
+        LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        if (latestDeparture.isAfter(origin.plusHours(WeatherService.HOURLY_HOURS))) {
+            throw new IllegalArgumentException("Departures can only be assessed up to "
+                    + WeatherService.HOURLY_HOURS / 24 + " days ahead");
+        }
+
+        List<RouteWaypoint> waypoints = new ArrayList<>(route.getWaypoints());
+        waypoints.sort(Comparator.comparingInt(RouteWaypoint::getSequenceNumber));
+
+        double[] etaOffsetMinutes = estimateEtaOffsets(waypoints, route.getEstimatedMinutes());
+
+        long latestArrivalMinutes = Math.max(0, Duration.between(origin, latestDeparture).toMinutes())
+                + route.getEstimatedMinutes();
+        int horizonHours = (int) (latestArrivalMinutes / 60) + 1;
+
+        // Waypoints in the same cell share one weather lookup
+        Map<Long, double[]> prefixByCell = new HashMap<>();
+        Map<Long, Double> recentByCell = new HashMap<>();
+        double[][] rainfallPrefix = new double[waypoints.size()][];
+        double[] recentRainfall = new double[waypoints.size()];
+
+        for (int i = 0; i < waypoints.size(); i++) {
+            RouteWaypoint waypoint = waypoints.get(i);
+            long cellKey = GeoCell.key(waypoint.getLatitude(), waypoint.getLongitude());
+
+            rainfallPrefix[i] = prefixByCell.computeIfAbsent(cellKey, key -> {
+                double[] hourly = weatherService.getHourlyRainfall(
+                        waypoint.getLatitude(), waypoint.getLongitude(), horizonHours);
+                double[] prefix = new double[hourly.length + 1];
+                for (int h = 0; h < hourly.length; h++) {
+                    prefix[h + 1] = prefix[h] + hourly[h];
+                }
+                return prefix;
+            });
+            recentRainfall[i] = recentByCell.computeIfAbsent(cellKey, key -> weatherService
+                    .getCurrentWeather(waypoint.getLatitude(), waypoint.getLongitude())
+                    .getRecentRainfallInches());
+        }
+
+        return new RouteRiskTimeline(route, weatherService, origin, waypoints,
+                etaOffsetMinutes, rainfallPrefix, recentRainfall);
+    }
+
+    /**
+     * Score a single departure time, including the risk at each waypoint.
+     */
+    DepartureRisk evaluate(LocalDateTime departure) {
+        long departureMinutes = Duration.between(origin, departure).toMinutes();
+
+        List<Integer> waypointRisks = new ArrayList<>();
+        int peakRisk = 0;
+        int peakSequence = waypoints.isEmpty() ? 0 : waypoints.get(0).getSequenceNumber();
+
+        for (int i = 0; i < waypoints.size(); i++) {
+            int risk = riskAtHour(i, hourIndex(departureMinutes, i));
+            waypointRisks.add(risk);
+            if (risk > peakRisk) {
+                peakRisk = risk;
+                peakSequence = waypoints.get(i).getSequenceNumber();
+            }
+        }
+
+        return DepartureRisk.builder()
+                .routeId(route.getRouteId())
+                .departureTime(departure)
+                .arrivalTime(departure.plusMinutes(route.getEstimatedMinutes()))
+                .riskLevel(peakRisk)
+                .peakRiskSequenceNumber(peakSequence)
+                .waypointRiskLevels(waypointRisks)
+                .build();
+    }
+
+    /**
+     * Score every departure from {@code start} to {@code end} in fixed steps.
+     * A waypoint only moves to its next forecast hour when the departure passes the
+     * minute past the hour given by its ETA offset, so waypoints are ordered by that
+     * minute and each step rescores just the ones it passes. Waypoints are also indexed
+     * by risk level, so the route maximum is found without rescanning them.
+     */
+    List<DepartureRisk> scan(LocalDateTime start, LocalDateTime end, int stepMinutes) {
+        int count = waypoints.size();
+        int[] currentHour = new int[count];
+        int[] currentRisk = new int[count];
+        BitSet[] atLevel = new BitSet[RISK_LEVELS];
+        for (int level = 0; level < RISK_LEVELS; level++) {
+            atLevel[level] = new BitSet(count);
+        }
+
+        long startMinutes = Duration.between(origin, start).toMinutes();
+        for (int i = 0; i < count; i++) {
+            currentHour[i] = hourIndex(startMinutes, i);
+            currentRisk[i] = riskAtHour(i, currentHour[i]);
+            atLevel[currentRisk[i]].set(i);
+        }
+
+        // Minute past the hour at which each waypoint rolls over to its next forecast hour
+        int[] rollover = new int[count];
+        for (int i = 0; i < count; i++) {
+            rollover[i] = (int) Math.floorMod(-Math.round(etaOffsetMinutes[i]), 60L);
+        }
+        int[] byRollover = IntStream.range(0, count)
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> rollover[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // Next rollover strictly after the start
+        long hourBase = startMinutes - Math.floorMod(startMinutes, 60L);
+        int next = 0;
+        while (next < count && hourBase + rollover[byRollover[next]] <= startMinutes) {
+            next++;
+        }
+        if (next == count) {
+            next = 0;
+            hourBase += 60;
+        }
+
+        List<DepartureRisk> slots = new ArrayList<>();
+        long departureMinutes = startMinutes;
+        for (LocalDateTime departure = start; !departure.isAfter(end); departure = departure.plusMinutes(stepMinutes)) {
+            while (count > 0 && hourBase + rollover[byRollover[next]] <= departureMinutes) {
+                int i = byRollover[next];
+                int hour = hourIndex(departureMinutes, i);
+                if (hour != currentHour[i]) {
+                    atLevel[currentRisk[i]].clear(i);
+                    currentHour[i] = hour;
+                    currentRisk[i] = riskAtHour(i, hour);
+                    atLevel[currentRisk[i]].set(i);
+                }
+                if (++next == count) {
+                    next = 0;
+                    hourBase += 60;
+                }
+            }
+
+            // Highest risk level, and the first waypoint on the route at that level
+            int peakRisk = 0;
+            for (int level = RISK_LEVELS - 1; level > 0; level--) {
+                if (!atLevel[level].isEmpty()) {
+                    peakRisk = level;
+                    break;
+                }
+            }
+            int peakSequence = count == 0 ? 0 : waypoints.get(Math.max(0, atLevel[peakRisk].nextSetBit(0)))
+                    .getSequenceNumber();
+
+            slots.add(DepartureRisk.builder()
+                    .routeId(route.getRouteId())
+                    .departureTime(departure)
+                    .arrivalTime(departure.plusMinutes(route.getEstimatedMinutes()))
+                    .riskLevel(peakRisk)
+                    .peakRiskSequenceNumber(peakSequence)
+                    .build());
+
+            departureMinutes += stepMinutes;
+        }
+
+        return slots;
+    }
+
+    private int hourIndex(long departureMinutes, int waypointIndex) {
+        return (int) Math.floorDiv(departureMinutes + Math.round(etaOffsetMinutes[waypointIndex]), 60L);
+    }
+
+    /**
+     * Risk at a waypoint given rainfall over the trailing window ending at {@code hour}.
+     * Hours before the forecast starts are filled in from observed recent rainfall.
+     */
+    private int riskAtHour(int waypointIndex, int hour) {
+        double[] prefix = rainfallPrefix[waypointIndex];
+        int forecastHours = prefix.length - 1;
+        int windowEnd = Math.min(hour, forecastHours - 1);
+
+        double exposure = 0;
+        int windowStart = Math.max(0, hour - EXPOSURE_HOURS + 1);
+        if (windowEnd >= windowStart) {
+            exposure += prefix[windowEnd + 1] - prefix[windowStart];
+        }
+
+        int observedHours = Math.max(0, Math.min(EXPOSURE_HOURS, EXPOSURE_HOURS - 1 - hour));
+        exposure += recentRainfall[waypointIndex] * observedHours / EXPOSURE_HOURS;
+
+        return weatherService.rainfallToRisk(exposure);
+    }
+
+    /**
+     * Spread the route's estimated driving time over its waypoints by distance travelled.
+     */
+    private static double[] estimateEtaOffsets(List<RouteWaypoint> waypoints, int estimatedMinutes) {
+        double[] cumulative = new double[waypoints.size()];
+        for (int i = 1; i < waypoints.size(); i++) {
+            cumulative[i] = cumulative[i - 1] + distanceMiles(waypoints.get(i - 1), waypoints.get(i));
+        }
+
+        double total = waypoints.isEmpty() ? 0 : cumulative[waypoints.size() - 1];
+        double[] offsets = new double[waypoints.size()];
+        for (int i = 0; i < waypoints.size(); i++) {
+            double fraction = total > 0
+                    ? cumulative[i] / total
+                    : (waypoints.size() > 1 ? (double) i / (waypoints.size() - 1) : 0);
+            offsets[i] = fraction * estimatedMinutes;
+        }
+        return offsets;
+    }
+
+    /**
+     * Great-circle distance between two waypoints.
+     */
+    private static double distanceMiles(RouteWaypoint from, RouteWaypoint to) {
+        double lat1 = Math.toRadians(from.getLatitude());
+        double lat2 = Math.toRadians(to.getLatitude());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(to.getLongitude() - from.getLongitude());
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 3958.8 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
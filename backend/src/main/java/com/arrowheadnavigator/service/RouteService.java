@@ -1,32 +1,65 @@
 package com.arrowheadnavigator.service;
 
+import com.arrowheadnavigator.cache.WaypointRiskCache;
 import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.DepartureRisk;
+import com.arrowheadnavigator.model.DepartureWindow;
 import com.arrowheadnavigator.model.RiskFactor;
 import com.arrowheadnavigator.model.RouteWaypoint;
 import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.profiling.RouteRiskEvaluationEvent;
+import com.arrowheadnavigator.util.GeoCell;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing delivery routes and calculating risk levels.
  * This implementation includes sample data for development purposes.
  */
+@Slf4j
 @Service
 public class RouteService {
 
+    // Weights of the risk factors that make up a route's overall risk
+    static final double CURRENT_WEATHER_WEIGHT = 0.4;
+    static final double FORECAST_WEIGHT = 0.3;
+    static final double TERRAIN_WEIGHT = 0.3;
+
     private final WeatherService weatherService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Waypoint scores by grid cell and time bucket, so repeated assessments skip the weather lookups.
+    // Only scores from fresh weather are kept, and a cell is dropped when its weather changes.
+    private final WaypointRiskCache waypointRiskCache;
 
-    // In-memory storage for demo purposes
-    private final List<DeliveryRoute> routes = new ArrayList<>();
+    // In-memory storage for demo purposes; read far more often than written
+    private final List<DeliveryRoute> routes = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public RouteService(WeatherService weatherService) {
+    public RouteService(
+            WeatherService weatherService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${risk.waypoint-cache.capacity:262144}") int waypointCacheCapacity,
+            @Value("${weather.cache.fresh-seconds:300}") long freshSeconds,
+            @Value("${risk.waypoint-cache.off-heap:false}") boolean waypointCacheOffHeap) {
         this.weatherService = weatherService;
+        this.eventPublisher = eventPublisher;
+        this.waypointRiskCache = new WaypointRiskCache(
+                waypointCacheCapacity, TimeUnit.SECONDS.toMillis(freshSeconds), waypointCacheOffHeap);
+        weatherService.addFloodRiskInvalidationListener(
+                cellKey -> waypointRiskCache.invalidate(cellKey, System.currentTimeMillis()));
         // Initialize with sample data
         initSampleRoutes();
     }
@@ -40,14 +73,26 @@ public class RouteService {
         return routes;
     }
 
+    /**
+     * Get all routes without recalculating their risk.
+     */
+    List<DeliveryRoute> listRoutes() {
+        return new ArrayList<>(routes);
+    }
+
+    /**
+     * Replace all routes, e.g. with those restored from a warm-start snapshot.
+     */
+    void restoreRoutes(List<DeliveryRoute> restored) {
+        routes.clear();
+        routes.addAll(restored);
+    }
+
     /**
      * Get a specific route by ID.
      */
     public DeliveryRoute getRouteById(String routeId) {
-        DeliveryRoute route = routes.stream()
-                .filter(r -> r.getRouteId().equals(routeId))
-                .findFirst()
-                .orElse(null);
+        DeliveryRoute route = findRoute(routeId);
 
         if (route != null) {
             updateRouteRisk(route);
@@ -56,47 +101,139 @@ public class RouteService {
         return route;
     }
 
+    /**
+     * Assess a route for a specific departure time.
+     * Each waypoint is scored against the forecast for the hour the truck reaches it.
+     *
+     * @throws IllegalArgumentException if the departure is past the end of the hourly forecast
+     */
+    public DepartureRisk assessDeparture(String routeId, LocalDateTime departure) {
+        DeliveryRoute route = findRoute(routeId);
+
+        if (route == null) {
+            return null;
+        }
+
+        return RouteRiskTimeline.build(route, weatherService, departure).evaluate(departure);
+    }
+
+    /**
+     * Scan a window of candidate departure times and pick the one with the lowest risk.
+     *
+     * @throws IllegalArgumentException if the window ends past the end of the hourly forecast
+     */
+    public DepartureWindow scanDepartureWindow(String routeId, LocalDateTime windowStart,
+                                               int windowHours, int stepMinutes) {
+        DeliveryRoute route = findRoute(routeId);
+
+        if (route == null) {
+            return null;
+        }
+
+        LocalDateTime windowEnd = windowStart.plusHours(windowHours);
+        List<DepartureRisk> slots = RouteRiskTimeline.build(route, weatherService, windowEnd)
+                .scan(windowStart, windowEnd, stepMinutes);
+
+        DepartureRisk best = slots.stream()
+                .min(Comparator.comparingInt(DepartureRisk::getRiskLevel))
+                .orElse(null);
+
+        return DepartureWindow.builder()
+                .routeId(routeId)
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .stepMinutes(stepMinutes)
+                .slots(slots)
+                .bestDeparture(best)
+                .build();
+    }
+
+    /**
+     * Look up a route without recalculating its risk.
+     */
+    DeliveryRoute findRoute(String routeId) {
+        return routes.stream()
+                .filter(r -> r.getRouteId().equals(routeId))
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Update the risk assessment for a route based on current weather conditions.
+     * If weather cannot be fetched, the previous assessment is kept and flagged stale.
      */
     private void updateRouteRisk(DeliveryRoute route) {
-        List<RiskFactor> riskFactors = new ArrayList<>();
-        int maxWaypointRisk = 0;
-
-        // Assess risk at each waypoint
-        for (RouteWaypoint waypoint : route.getWaypoints()) {
-            int pointRisk = assessWaypointRisk(waypoint);
-            waypoint.setLocalRiskLevel(pointRisk);
+        RouteRiskEvaluationEvent event = new RouteRiskEvaluationEvent();
+        event.begin();
+        try {
+            assessRouteRisk(route);
+        } catch (WeatherUnavailableException e) {
+            log.warn("Keeping previous risk for route {}: {}", route.getRouteId(), e.getMessage());
+            route.setWeatherStale(true);
+        }
+        commitEvaluation(event, route);
+    }
 
-            if (pointRisk > 5) {
-                waypoint.setRiskPoint(true);
-            }
+    /**
+     * Record a finished risk evaluation with Flight Recorder, if it is recording.
+     */
+    static void commitEvaluation(RouteRiskEvaluationEvent event, DeliveryRoute route) {
+        if (event.shouldCommit()) {
+            event.routeId = route.getRouteId();
+            event.waypointCount = route.getWaypoints() != null ? route.getWaypoints().size() : 0;
+            event.riskLevel = route.getRiskLevel();
+            event.weatherStale = route.isWeatherStale();
+            event.commit();
+        }
+    }
 
-            maxWaypointRisk = Math.max(maxWaypointRisk, pointRisk);
+    /**
+     * Assess a route from current weather conditions.
+     * All weather is looked up before the route is modified.
+     */
+    private void assessRouteRisk(DeliveryRoute route) {
+        // Assess risk at each waypoint
+        int[] pointRisks = new int[route.getWaypoints().size()];
+        for (int i = 0; i < pointRisks.length; i++) {
+            pointRisks[i] = assessWaypointRisk(route.getWaypoints().get(i));
         }
 
-        // Add weather as a risk factor
         WeatherData weather = weatherService.getCurrentWeather(
                 route.getWaypoints().get(0).getLatitude(),
                 route.getWaypoints().get(0).getLongitude());
 
+        int forecastRisk = weatherService.calculateFloodRisk(
+                route.getWaypoints().get(0).getLatitude(),
+                route.getWaypoints().get(0).getLongitude());
+
+        applyRiskAssessment(route, pointRisks, weather, forecastRisk);
+    }
+
+    /**
+     * Combine waypoint risk, current weather and forecast risk into the route's assessment.
+     * Shared by the blocking and reactive request paths.
+     */
+    void applyRiskAssessment(DeliveryRoute route, int[] pointRisks, WeatherData weather, int forecastRisk) {
+        List<RiskFactor> riskFactors = new ArrayList<>();
+        int maxWaypointRisk = 0;
+        for (int pointRisk : pointRisks) {
+            maxWaypointRisk = Math.max(maxWaypointRisk, pointRisk);
+        }
+
+        // Add weather as a risk factor
         riskFactors.add(RiskFactor.builder()
                 .name("Current Weather")
                 .description(weather.getConditions())
                 .impactLevel(weather.getFloodRiskLevel())
-                .weight(0.4)
+                .weight(CURRENT_WEATHER_WEIGHT)
                 .build());
 
         // Add forecast as a risk factor
-        int forecastRisk = weatherService.calculateFloodRisk(
-                route.getWaypoints().get(0).getLatitude(),
-                route.getWaypoints().get(0).getLongitude());
-
         riskFactors.add(RiskFactor.builder()
                 .name("Weather Forecast")
                 .description("Based on precipitation forecast for next 72 hours")
                 .impactLevel(forecastRisk)
-                .weight(0.3)
+                .weight(FORECAST_WEIGHT)
                 .build());
 
         // Add terrain as a risk factor
@@ -104,7 +241,7 @@ public class RouteService {
                 .name("Route Terrain")
                 .description("Based on elevation changes and known flood zones")
                 .impactLevel(maxWaypointRisk)
-                .weight(0.3)
+                .weight(TERRAIN_WEIGHT)
                 .build());
 
         // Calculate overall risk level as weighted average
@@ -114,11 +251,29 @@ public class RouteService {
 
         int overallRisk = (int) Math.round(weightedRiskSum);
 
+        // Update waypoints, noting any that have just become risk points
+        List<Integer> newRiskPoints = new ArrayList<>();
+        for (int i = 0; i < pointRisks.length; i++) {
+            RouteWaypoint waypoint = route.getWaypoints().get(i);
+            waypoint.setLocalRiskLevel(pointRisks[i]);
+
+            boolean riskPoint = pointRisks[i] > 5;
+            if (riskPoint && !waypoint.isRiskPoint()) {
+                newRiskPoints.add(waypoint.getSequenceNumber());
+            }
+            waypoint.setRiskPoint(riskPoint);
+        }
+
         // Update route
+        int previousRiskLevel = route.getRiskLevel();
         route.setRiskLevel(overallRisk);
         route.setRiskFactors(riskFactors);
         route.setWeatherConditions(weather.getConditions() + ": " +
                 weather.getDescription());
+        route.setWeatherRetrievalTime(weather.getRetrievalTime());
+        route.setWeatherStale(weather.isStale());
+
+        eventPublisher.publishEvent(new RouteRiskAssessedEvent(route, previousRiskLevel, newRiskPoints));
     }
 
     /**
@@ -126,10 +281,32 @@ public class RouteService {
      * This is a simplified assessment for development purposes.
      */
     private int assessWaypointRisk(RouteWaypoint waypoint) {
+        int cachedRisk = cachedWaypointRisk(waypoint);
+        if (cachedRisk != WaypointRiskCache.MISSING) {
+            return cachedRisk;
+        }
+
         // Get the base flood risk for this location
-        int baseRisk = weatherService.calculateFloodRisk(
+        return waypointRisk(waypoint, weatherService.assessFloodRisk(
                 waypoint.getLatitude(),
-                waypoint.getLongitude());
+                waypoint.getLongitude()));
+    }
+
+    /**
+     * Get the cached risk at a waypoint, or {@link WaypointRiskCache#MISSING}.
+     * Shared by the blocking and reactive request paths.
+     */
+    int cachedWaypointRisk(RouteWaypoint waypoint) {
+        return waypointRiskCache.get(
+                GeoCell.key(waypoint.getLatitude(), waypoint.getLongitude()), System.currentTimeMillis());
+    }
+
+    /**
+     * Turn the flood risk of a waypoint's cell into the risk at the waypoint, caching it
+     * if the weather behind it was fresh. Shared by the blocking and reactive request paths.
+     */
+    int waypointRisk(RouteWaypoint waypoint, WeatherService.FloodRisk floodRisk) {
+        int baseRisk = floodRisk.level();
 
         // In a real implementation, we would adjust based on:
         // - Elevation data
@@ -137,6 +314,10 @@ public class RouteService {
         // - Known flood zones
         // - Historical flood data for this specific point
 
+        if (floodRisk.fresh()) {
+            waypointRiskCache.put(GeoCell.key(waypoint.getLatitude(), waypoint.getLongitude()),
+                    System.currentTimeMillis(), baseRisk);
+        }
         return baseRisk;
     }
 
@@ -0,0 +1,518 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.CellCache;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.arrowheadnavigator.model.RiskFactor;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import com.arrowheadnavigator.profiling.SnapshotPublishedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Service for warm restarts.
+ * Routes, their computed risk and the cached cell weather are written to a compact
+ * binary snapshot periodically and on shutdown. On startup the snapshot is memory-mapped
+ * and restored, skipping weather older than the configured maximum age, so a restarted
+ * node serves warm data instead of hammering weather.gov.
+ */
+@Slf4j
+@Service
+public class SnapshotService {
+
+    private static final int MAGIC = 0x41484e53; // "AHNS"
+    private static final int VERSION = 2;
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final RouteService routeService;
+    private final WeatherService weatherService;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final long intervalSeconds;
+    private final long maxAgeMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SnapshotService(
+            RouteService routeService,
+            WeatherService weatherService,
+            @Value("${snapshot.enabled:true}") boolean enabled,
+            @Value("${snapshot.path:data/warm-start.snapshot}") String snapshotPath,
+            @Value("${snapshot.interval-seconds:300}") long intervalSeconds,
+            @Value("${snapshot.max-age-minutes:60}") long maxAgeMinutes) {
+        this.routeService = routeService;
+        this.weatherService = weatherService;
+        this.enabled = enabled;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.intervalSeconds = intervalSeconds;
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        restore();
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.shutdownNow();
+        writeQuietly();
+    }
+
+    /**
+     * Write a snapshot of the current routes and caches.
+     * The file is written next to the target and moved into place, so a crash
+     * mid-write never leaves a truncated snapshot behind.
+     */
+    public void write() throws IOException {
+        SnapshotPublishedEvent event = new SnapshotPublishedEvent();
+        event.begin();
+
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, "snapshot", ".tmp");
+
+        List<DeliveryRoute> routes = routeService.listRoutes();
+        Map<Long, CellCache.Entry<WeatherData>> currentWeather = weatherService.currentWeatherCache().nearEntries();
+        boolean succeeded = false;
+        try {
+            CRC32 checksum = new CRC32();
+            try (OutputStream file = Files.newOutputStream(tempFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(System.currentTimeMillis());
+
+                DataOutputStream body = new DataOutputStream(new CheckedOutputStream(out, checksum));
+                writeRoutes(body, routes);
+                writeCurrentWeather(body, currentWeather);
+                writeForecasts(body, weatherService.forecastCache().nearEntries());
+                writeFloodRisk(body, weatherService.floodRiskCache().nearEntries());
+                writeHourly(body, weatherService.hourlyCache().nearEntries());
+                body.flush();
+
+                out.writeLong(checksum.getValue());
+            }
+            Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            succeeded = true;
+        } finally {
+            Files.deleteIfExists(tempFile);
+            if (event.shouldCommit()) {
+                event.path = snapshotPath.toString();
+                event.routes = routes.size();
+                event.weatherCells = currentWeather.size();
+                event.size = succeeded ? Files.size(snapshotPath) : 0;
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Restore routes and caches from the snapshot, if there is a valid one.
+     */
+    private void restore() {
+        if (!Files.isReadable(snapshotPath)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 24 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Ignoring snapshot {}: unrecognised format", snapshotPath);
+                return;
+            }
+            long writtenAt = buffer.getLong();
+
+            // Verify the body before trusting any of it
+            int bodyStart = buffer.position();
+            int bodyEnd = buffer.limit() - Long.BYTES;
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(bodyStart).limit(bodyEnd));
+            if (checksum.getValue() != buffer.getLong(bodyEnd)) {
+                log.warn("Ignoring snapshot {}: checksum mismatch", snapshotPath);
+                return;
+            }
+
+            ByteBuffer body = buffer.duplicate().position(bodyStart).limit(bodyEnd);
+            long oldestUsable = System.currentTimeMillis() - maxAgeMillis;
+
+            List<DeliveryRoute> routes = readRoutes(body);
+            int weatherCells = restoreEntries(body, weatherService.currentWeatherCache(),
+                    SnapshotService::readWeatherData, oldestUsable);
+            int forecastCells = restoreEntries(body, weatherService.forecastCache(),
+                    SnapshotService::readForecasts, oldestUsable);
+            int riskCells = restoreEntries(body, weatherService.floodRiskCache(),
+                    ByteBuffer::getInt, oldestUsable);
+            int hourlyCells = restoreEntries(body, weatherService.hourlyCache(),
+                    SnapshotService::readHourly, oldestUsable);
+
+            routeService.restoreRoutes(routes);
+            log.info("Restored snapshot from {}: {} routes, {} weather, {} forecast, {} risk and {} hourly cells",
+                    LocalDateTime.ofEpochSecond(writtenAt / 1000, 0, ZoneOffset.UTC),
+                    routes.size(), weatherCells, forecastCells, riskCells, hourlyCells);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Routes
+
+    private static void writeRoutes(DataOutputStream out, List<DeliveryRoute> routes) throws IOException {
+        out.writeInt(routes.size());
+        for (DeliveryRoute route : routes) {
+            writeString(out, route.getRouteId());
+            writeString(out, route.getName());
+            writeString(out, route.getDescription());
+            out.writeDouble(route.getDistanceMiles());
+            out.writeInt(route.getEstimatedMinutes());
+            out.writeInt(route.getRiskLevel());
+            writeString(out, route.getWeatherConditions());
+            writeString(out, route.getSupplier());
+            writeTime(out, route.getWeatherRetrievalTime());
+            out.writeBoolean(route.isWeatherStale());
+
+            List<String> products = route.getAffectedProducts() != null ? route.getAffectedProducts() : List.of();
+            out.writeInt(products.size());
+            for (String product : products) {
+                writeString(out, product);
+            }
+
+            List<RouteWaypoint> waypoints = route.getWaypoints() != null ? route.getWaypoints() : List.of();
+            out.writeInt(waypoints.size());
+            for (RouteWaypoint waypoint : waypoints) {
+                out.writeDouble(waypoint.getLatitude());
+                out.writeDouble(waypoint.getLongitude());
+                writeString(out, waypoint.getName());
+                writeString(out, waypoint.getDescription());
+                out.writeInt(waypoint.getSequenceNumber());
+                out.writeBoolean(waypoint.isRiskPoint());
+                out.writeInt(waypoint.getLocalRiskLevel());
+            }
+
+            List<RiskFactor> riskFactors = route.getRiskFactors() != null ? route.getRiskFactors() : List.of();
+            out.writeInt(riskFactors.size());
+            for (RiskFactor riskFactor : riskFactors) {
+                writeString(out, riskFactor.getName());
+                writeString(out, riskFactor.getDescription());
+                out.writeInt(riskFactor.getImpactLevel());
+                out.writeDouble(riskFactor.getWeight());
+            }
+        }
+    }
+
+    private static List<DeliveryRoute> readRoutes(ByteBuffer in) {
+        int count = in.getInt();
+        List<DeliveryRoute> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DeliveryRoute route = DeliveryRoute.builder()
+                    .routeId(readString(in))
+                    .name(readString(in))
+                    .description(readString(in))
+                    .distanceMiles(in.getDouble())
+                    .estimatedMinutes(in.getInt())
+                    .riskLevel(in.getInt())
+                    .weatherConditions(readString(in))
+                    .supplier(readString(in))
+                    .weatherRetrievalTime(readTime(in))
+                    .weatherStale(in.get() != 0)
+                    .build();
+
+            int productCount = in.getInt();
+            List<String> products = new ArrayList<>(productCount);
+            for (int p = 0; p < productCount; p++) {
+                products.add(readString(in));
+            }
+            route.setAffectedProducts(products);
+
+            int waypointCount = in.getInt();
+            List<RouteWaypoint> waypoints = new ArrayList<>(waypointCount);
+            for (int w = 0; w < waypointCount; w++) {
+                waypoints.add(RouteWaypoint.builder()
+                        .latitude(in.getDouble())
+                        .longitude(in.getDouble())
+                        .name(readString(in))
+                        .description(readString(in))
+                        .sequenceNumber(in.getInt())
+                        .riskPoint(in.get() != 0)
+                        .localRiskLevel(in.getInt())
+                        .build());
+            }
+            route.setWaypoints(waypoints);
+
+            int factorCount = in.getInt();
+            List<RiskFactor> riskFactors = new ArrayList<>(factorCount);
+            for (int f = 0; f < factorCount; f++) {
+                riskFactors.add(RiskFactor.builder()
+                        .name(readString(in))
+                        .description(readString(in))
+                        .impactLevel(in.getInt())
+                        .weight(in.getDouble())
+                        .build());
+            }
+            route.setRiskFactors(riskFactors);
+
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    // Cell caches
+
+    private static void writeCurrentWeather(DataOutputStream out, Map<Long, CellCache.Entry<WeatherData>> entries)
+            throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, CellCache.Entry<WeatherData>> entry : entries.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().fetchedAt());
+
+            WeatherData weather = entry.getValue().value();
+            out.writeDouble(weather.getLatitude());
+            out.writeDouble(weather.getLongitude());
+            writeString(out, weather.getLocation());
+            writeString(out, weather.getConditions());
+            writeString(out, weather.getDescription());
+            out.writeDouble(weather.getTemperatureFahrenheit());
+            out.writeDouble(weather.getHumidity());
+            out.writeDouble(weather.getWindSpeedMph());
+            out.writeInt(weather.getWindDirection());
+            out.writeDouble(weather.getPrecipitationInches());
+            out.writeDouble(weather.getPrecipitationProbability());
+            out.writeDouble(weather.getRecentRainfallInches());
+            out.writeInt(weather.getFloodRiskLevel());
+            writeTime(out, weather.getObservationTime());
+            writeTime(out, weather.getRetrievalTime());
+        }
+    }
+
+    private static WeatherData readWeatherData(ByteBuffer in) {
+        return WeatherData.builder()
+                .latitude(in.getDouble())
+                .longitude(in.getDouble())
+                .location(readString(in))
+                .conditions(readString(in))
+                .description(readString(in))
+                .temperatureFahrenheit(in.getDouble())
+                .humidity(in.getDouble())
+                .windSpeedMph(in.getDouble())
+                .windDirection(in.getInt())
+                .precipitationInches(in.getDouble())
+                .precipitationProbability(in.getDouble())
+                .recentRainfallInches(in.getDouble())
+                .floodRiskLevel(in.getInt())
+                .observationTime(readTime(in))
+                .retrievalTime(readTime(in))
+                .build();
+    }
+
+    private static void writeForecasts(DataOutputStream out, Map<Long, CellCache.Entry<List<WeatherForecast>>> entries)
+            throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, CellCache.Entry<List<WeatherForecast>>> entry : entries.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().fetchedAt());
+
+            List<WeatherForecast> days = entry.getValue().value();
+            out.writeInt(days.size());
+            for (WeatherForecast day : days) {
+                out.writeDouble(day.getLatitude());
+                out.writeDouble(day.getLongitude());
+                out.writeLong(day.getForecastDate() != null ? day.getForecastDate().toEpochDay() : NULL_TIME);
+                writeString(out, day.getConditions());
+                writeString(out, day.getDescription());
+                out.writeDouble(day.getHighTemperatureFahrenheit());
+                out.writeDouble(day.getLowTemperatureFahrenheit());
+                out.writeDouble(day.getPrecipitationProbability());
+                out.writeDouble(day.getExpectedRainfallInches());
+                out.writeDouble(day.getHumidity());
+                out.writeDouble(day.getWindSpeedMph());
+                out.writeInt(day.getFloodRiskLevel());
+                writeString(out, day.getFloodRiskDescription());
+                out.writeDouble(day.getSoilSaturationPct());
+                writeTime(out, day.getRetrievalTime());
+            }
+        }
+    }
+
+    private static List<WeatherForecast> readForecasts(ByteBuffer in) {
+        int count = in.getInt();
+        List<WeatherForecast> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WeatherForecast.WeatherForecastBuilder day = WeatherForecast.builder()
+                    .latitude(in.getDouble())
+                    .longitude(in.getDouble());
+            long epochDay = in.getLong();
+            days.add(day
+                    .forecastDate(epochDay != NULL_TIME ? LocalDate.ofEpochDay(epochDay) : null)
+                    .conditions(readString(in))
+                    .description(readString(in))
+                    .highTemperatureFahrenheit(in.getDouble())
+                    .lowTemperatureFahrenheit(in.getDouble())
+                    .precipitationProbability(in.getDouble())
+                    .expectedRainfallInches(in.getDouble())
+                    .humidity(in.getDouble())
+                    .windSpeedMph(in.getDouble())
+                    .floodRiskLevel(in.getInt())
+                    .floodRiskDescription(readString(in))
+                    .soilSaturationPct(in.getDouble())
+                    .retrievalTime(readTime(in))
+                    .build());
+        }
+        return List.copyOf(days);
+    }
+
+    private static void writeFloodRisk(DataOutputStream out, Map<Long, CellCache.Entry<Integer>> entries)
+            throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, CellCache.Entry<Integer>> entry : entries.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().fetchedAt());
+            out.writeInt(entry.getValue().value());
+        }
+    }
+
+    private static void writeHourly(DataOutputStream out, Map<Long, CellCache.Entry<HourlyPrecipitation>> entries)
+            throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, CellCache.Entry<HourlyPrecipitation>> entry : entries.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue().fetchedAt());
+
+            HourlyPrecipitation series = entry.getValue().value();
+            out.writeLong(series.getStartEpochHour());
+            writeDoubles(out, series.getRainfallInches());
+            writeDoubles(out, series.getProbabilityPercent());
+        }
+    }
+
+    private static HourlyPrecipitation readHourly(ByteBuffer in) {
+        return HourlyPrecipitation.builder()
+                .startEpochHour(in.getLong())
+                .rainfallInches(readDoubles(in))
+                .probabilityPercent(readDoubles(in))
+                .build();
+    }
+
+    /**
+     * Read one cache section, restoring entries young enough to be served.
+     * Older entries are still read, to move past them, but dropped.
+     *
+     * @return Number of entries restored
+     */
+    private static <T> int restoreEntries(ByteBuffer in, CellCache<T> cache,
+                                          Function<ByteBuffer, T> reader, long oldestUsable) {
+        int count = in.getInt();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            long cellKey = in.getLong();
+            long fetchedAt = in.getLong();
+            T value = reader.apply(in);
+            if (fetchedAt >= oldestUsable) {
+                cache.restoreNear(cellKey, new CellCache.Entry<>(value, fetchedAt));
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    // Primitives
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(ByteBuffer in) {
+        double[] values = new double[in.getInt()];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_TIME);
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        long millis = in.getLong();
+        if (millis == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
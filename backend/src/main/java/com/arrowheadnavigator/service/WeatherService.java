@@ -1,61 +1,179 @@
 package com.arrowheadnavigator.service;
 
+import com.arrowheadnavigator.cache.CellCache;
+import com.arrowheadnavigator.cache.CellCacheFactory;
+import com.arrowheadnavigator.model.HourlyPrecipitation;
 import com.arrowheadnavigator.model.WeatherData;
 import com.arrowheadnavigator.model.WeatherForecast;
+import com.arrowheadnavigator.profiling.WeatherLookupEvent;
+import com.arrowheadnavigator.util.GeoCell;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
 /**
  * Service for retrieving and processing weather data.
- * This implementation includes simulated data for development purposes.
- * In a production environment, this would integrate with the National Weather Service API.
+ * Weather is cached per grid cell and served stale-while-revalidate: once a cell has
+ * been fetched, callers get the last good data immediately while a refresh runs in
+ * the background. Calls to weather.gov go through a circuit breaker, a rate limiter
+ * and a bounded thread pool, so an upstream brownout cannot tie up request threads.
+ * When a shared cache tier is configured, replicas share fetched weather and flood
+ * risk, and only one replica at a time fetches a given cell from upstream.
  */
+@Slf4j
 @Service
 public class WeatherService {
 
-    private final RestTemplate restTemplate;
-    private final String weatherApiBaseUrl;
+    // Upstream always returns a full week; shorter requests are sliced from it
+    private static final int FORECAST_DAYS = 7;
+    static final int HOURLY_HOURS = FORECAST_DAYS * 24;
 
-    // For demo purposes, we'll seed a random generator to get consistent "random" data
-    private final Random random = new Random(42);
+    // Times the shared tier is re-checked while another replica holds a cell's fetch lock
+    private static final int SHARED_WAIT_ATTEMPTS = 4;
+
+    private final NwsWeatherClient weatherClient;
+    private final long freshMillis;
+    private final long upstreamTimeoutMillis;
+
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+    private final ThreadPoolExecutor upstreamPool;
+
+    // Set while background work runs on a thread, so the refreshes it starts can be capped
+    private static final ThreadLocal<Boolean> BACKGROUND = ThreadLocal.withInitial(() -> false);
+    private final Semaphore backgroundRefreshPermits;
+
+    private final CellCache<WeatherData> currentCache;
+    private final CellCache<List<WeatherForecast>> forecastCache;
+    private final CellCache<Integer> floodRiskCache;
+    private final CellCache<HourlyPrecipitation> hourlyCache;
+    private final Map<Long, CompletableFuture<WeatherData>> currentRefreshes = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<List<WeatherForecast>>> forecastRefreshes = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<HourlyPrecipitation>> hourlyRefreshes = new ConcurrentHashMap<>();
 
     public WeatherService(
-            RestTemplate restTemplate,
-            @Value("${weather.api.base-url}") String weatherApiBaseUrl) {
-        this.restTemplate = restTemplate;
-        this.weatherApiBaseUrl = weatherApiBaseUrl;
+            NwsWeatherClient weatherClient,
+            CellCacheFactory cellCacheFactory,
+            @Value("${weather.cache.fresh-seconds:300}") long freshSeconds,
+            @Value("${weather.upstream.timeout-ms:2000}") long upstreamTimeoutMillis,
+            @Value("${weather.upstream.rate-limit-per-second:5}") int rateLimitPerSecond,
+            @Value("${weather.upstream.max-concurrent:4}") int maxConcurrent,
+            @Value("${weather.upstream.max-queued:64}") int maxQueued,
+            @Value("${weather.upstream.max-background-refreshes:8}") int maxBackgroundRefreshes) {
+        this.weatherClient = weatherClient;
+        this.freshMillis = TimeUnit.SECONDS.toMillis(freshSeconds);
+        this.upstreamTimeoutMillis = upstreamTimeoutMillis;
+        this.backgroundRefreshPermits = new Semaphore(maxBackgroundRefreshes);
+
+        this.currentCache = cellCacheFactory.create("weather-current", WeatherData.class);
+        this.forecastCache = cellCacheFactory.createList("weather-forecast", WeatherForecast.class);
+        this.floodRiskCache = cellCacheFactory.create("flood-risk", Integer.class);
+        this.hourlyCache = cellCacheFactory.create("weather-hourly", HourlyPrecipitation.class);
+
+        // Open after half of recent calls fail or run slow; probe again after 30s
+        this.circuitBreaker = CircuitBreaker.of("weather-gov", CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(50)
+                .slowCallDurationThreshold(Duration.ofMillis(upstreamTimeoutMillis))
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build());
+
+        // weather.gov does not publish a hard limit; stay well under what it tolerates
+        this.rateLimiter = RateLimiter.of("weather-gov", RateLimiterConfig.custom()
+                .limitForPeriod(rateLimitPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMillis(500))
+                .build());
+
+        // Bulkhead: a fixed number of upstream calls with a bounded backlog
+        AtomicInteger threadCount = new AtomicInteger();
+        this.upstreamPool = new ThreadPoolExecutor(
+                maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "weather-upstream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     /**
      * Get current weather conditions for a location.
-     * This is currently mocked for development.
+     * Returns cached data for the location's cell when available, flagged stale if it is
+     * being refreshed.
+     *
+     * @throws WeatherUnavailableException if nothing is cached and weather.gov cannot be reached
      */
     public WeatherData getCurrentWeather(double latitude, double longitude) {
-        // In a real implementation, we'd call the weather API:
-        // String url = weatherApiBaseUrl + "/points/" + latitude + "," + longitude;
-        // ResponseEntity<NwsPointResponse> response = restTemplate.getForEntity(url, NwsPointResponse.class);
+        return await(getCurrentWeatherAsync(latitude, longitude));
+    }
 
-        // For now, return simulated data:
-        return createMockWeatherData(latitude, longitude);
+    /**
+     * Non-blocking variant of {@link #getCurrentWeather}.
+     * Completes immediately for cached cells; otherwise when upstream responds.
+     */
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(double latitude, double longitude) {
+        long cellKey = GeoCell.key(latitude, longitude);
+        return lookupAsync(currentCache, currentRefreshes, cellKey,
+                () -> weatherClient.fetchCurrentWeather(GeoCell.latitude(cellKey), GeoCell.longitude(cellKey)))
+                .thenApply(cached -> cached.value().toBuilder()
+                        .stale(isStale(cached))
+                        .build());
     }
 
     /**
      * Get weather forecast for a location.
-     * This is currently mocked for development.
+     * Returns cached data for the location's cell when available, flagged stale if it is
+     * being refreshed.
+     *
+     * @throws WeatherUnavailableException if nothing is cached and weather.gov cannot be reached
      */
     public List<WeatherForecast> getWeatherForecast(double latitude, double longitude, int days) {
-        // In a real implementation, we'd call the weather API:
-        // String url = weatherApiBaseUrl + "/points/" + latitude + "," + longitude + "/forecast";
+        return await(getWeatherForecastAsync(latitude, longitude, days));
+    }
 
-        // For now, return simulated data:
-        return createMockForecast(latitude, longitude, days);
+    /**
+     * Non-blocking variant of {@link #getWeatherForecast}.
+     */
+    public CompletableFuture<List<WeatherForecast>> getWeatherForecastAsync(double latitude, double longitude, int days) {
+        long cellKey = GeoCell.key(latitude, longitude);
+        return lookupAsync(forecastCache, forecastRefreshes, cellKey,
+                () -> weatherClient.fetchForecast(GeoCell.latitude(cellKey), GeoCell.longitude(cellKey), FORECAST_DAYS))
+                .thenApply(cached -> {
+                    boolean stale = isStale(cached);
+                    return cached.value().stream()
+                            .limit(days)
+                            .map(day -> day.toBuilder().stale(stale).build())
+                            .toList();
+                });
     }
 
     /**
@@ -69,10 +187,46 @@ public class WeatherService {
      * - Historical flood data
      */
     public int calculateFloodRisk(double latitude, double longitude) {
+        return await(calculateFloodRiskAsync(latitude, longitude));
+    }
+
+    /**
+     * Non-blocking variant of {@link #calculateFloodRisk}.
+     * Current weather and forecast are looked up concurrently.
+     */
+    public CompletableFuture<Integer> calculateFloodRiskAsync(double latitude, double longitude) {
+        return assessFloodRiskAsync(latitude, longitude).thenApply(FloodRisk::level);
+    }
+
+    /**
+     * Calculate flood risk for a location, noting whether it was computed from fresh
+     * weather and so may be reused until {@link #addFloodRiskInvalidationListener} says otherwise.
+     */
+    public FloodRisk assessFloodRisk(double latitude, double longitude) {
+        return await(assessFloodRiskAsync(latitude, longitude));
+    }
+
+    /**
+     * Non-blocking variant of {@link #assessFloodRisk}.
+     */
+    public CompletableFuture<FloodRisk> assessFloodRiskAsync(double latitude, double longitude) {
+        // Risk is kept while the weather behind it is fresh
+        long cellKey = GeoCell.key(latitude, longitude);
+        CellCache.Entry<Integer> cachedRisk = floodRiskCache.get(cellKey);
+        if (cachedRisk != null && !isStale(cachedRisk)) {
+            return CompletableFuture.completedFuture(new FloodRisk(cachedRisk.value(), true));
+        }
+
         // Get current weather and forecast
-        WeatherData current = getCurrentWeather(latitude, longitude);
-        List<WeatherForecast> forecast = getWeatherForecast(latitude, longitude, 3);
+        return getCurrentWeatherAsync(latitude, longitude)
+                .thenCombine(getWeatherForecastAsync(latitude, longitude, 3),
+                        (current, forecast) -> floodRiskFrom(cellKey, current, forecast));
+    }
 
+    /**
+     * Score flood risk for a cell from its current weather and forecast.
+     */
+    private FloodRisk floodRiskFrom(long cellKey, WeatherData current, List<WeatherForecast> forecast) {
         // Simple algorithm: calculate based on recent rainfall and expected rainfall
         double recentRainfall = current.getRecentRainfallInches();
 
@@ -84,132 +238,373 @@ public class WeatherService {
         // Base score on combined rainfall
         double totalRainfall = recentRainfall + expectedRainfall;
 
-        // Convert to a 0-10 scale
-        int riskScore = (int) Math.min(10, Math.round(totalRainfall * 2));
-
         // In a real implementation, we'd adjust based on terrain, soil conditions, etc.
         // For some locations like Seattle area, we might have known flood-prone areas
 
-        return riskScore;
+        int riskScore = rainfallToRisk(totalRainfall);
+
+        // Only cache risk computed from fresh weather; stale inputs are being refreshed
+        boolean stale = current.isStale() || forecast.stream().anyMatch(WeatherForecast::isStale);
+        if (!stale) {
+            floodRiskCache.put(cellKey, riskScore, System.currentTimeMillis());
+        }
+
+        return new FloodRisk(riskScore, !stale);
     }
 
     /**
-     * Create simulated weather data for development purposes.
+     * Get the flood risk cached for a location while it is fresh, or null.
+     * Never fetches weather.
      */
-    private WeatherData createMockWeatherData(double latitude, double longitude) {
-        String[] conditions = {"Clear", "Partly Cloudy", "Cloudy", "Light Rain", "Heavy Rain"};
+    public Integer cachedFloodRisk(double latitude, double longitude) {
+        CellCache.Entry<Integer> cachedRisk = floodRiskCache.get(GeoCell.key(latitude, longitude));
+        return cachedRisk != null && !isStale(cachedRisk) ? cachedRisk.value() : null;
+    }
 
-        // For Seattle area, increase chance of rain
-        boolean isPNW = latitude > 45 && latitude < 49 && longitude > -125 && longitude < -120;
-        int conditionIndex = isPNW ?
-                random.nextInt(2) + 3 : // Favor rainy conditions for PNW
-                random.nextInt(conditions.length);
+    /**
+     * Get the flood risk cached for a location even if its weather is no longer fresh, or null.
+     * Never fetches weather; stale risk is dropped as soon as the weather behind it is refreshed.
+     */
+    public Integer lastKnownFloodRisk(double latitude, double longitude) {
+        CellCache.Entry<Integer> cachedRisk = floodRiskCache.get(GeoCell.key(latitude, longitude));
+        return cachedRisk != null ? cachedRisk.value() : null;
+    }
 
-        double recentRainfall = isPNW ?
-                0.5 + random.nextDouble() * 2.0 : // Higher rainfall for PNW
-                random.nextDouble() * 1.0;
+    /**
+     * Every flood risk cached on this replica by cell key, fresh or not.
+     */
+    public Map<Long, Integer> knownFloodRisks() {
+        Map<Long, Integer> risks = new HashMap<>();
+        floodRiskCache.nearEntries().forEach((cellKey, entry) -> risks.put(cellKey, entry.value()));
+        return risks;
+    }
 
-        // Create simulated data
-        return WeatherData.builder()
-                .latitude(latitude)
-                .longitude(longitude)
-                .location("Location near " + latitude + ", " + longitude)
-                .conditions(conditions[conditionIndex])
-                .description("Simulated weather data for development")
-                .temperatureFahrenheit(45 + random.nextDouble() * 20) // 45-65°F
-                .humidity(70 + random.nextDouble() * 30) // 70-100%
-                .windSpeedMph(5 + random.nextDouble() * 15) // 5-20 mph
-                .windDirection(random.nextInt(360)) // 0-359 degrees
-                .precipitationInches(conditionIndex >= 3 ? 0.1 + random.nextDouble() * 0.5 : 0)
-                .precipitationProbability(conditionIndex >= 2 ? 50 + random.nextDouble() * 50 : 0)
-                .recentRainfallInches(recentRainfall)
-                .floodRiskLevel(calculateSimpleFloodRisk(recentRainfall, conditionIndex))
-                .observationTime(LocalDateTime.now().minusHours(1))
-                .retrievalTime(LocalDateTime.now())
-                .build();
+    /**
+     * Drop the flood risk cached for a location, here and on other replicas.
+     * Invalidation listeners are told, so anything derived from it is dropped too.
+     */
+    public void invalidateFloodRisk(double latitude, double longitude) {
+        floodRiskCache.invalidate(GeoCell.key(latitude, longitude));
     }
 
     /**
-     * Create simulated forecast data for development purposes.
+     * Register a listener called with a cell's key whenever flood risk computed for it
+     * may no longer hold: its weather was refreshed, here or on another replica, or its
+     * risk was invalidated.
      */
-    private List<WeatherForecast> createMockForecast(double latitude, double longitude, int days) {
-        String[] conditions = {"Clear", "Partly Cloudy", "Cloudy", "Light Rain", "Heavy Rain"};
+    public void addFloodRiskInvalidationListener(LongConsumer listener) {
+        floodRiskCache.addInvalidationListener(listener);
+    }
+
+    /**
+     * Convert an amount of rainfall into a flood risk score on the 0-10 scale.
+     */
+    public int rainfallToRisk(double totalRainfallInches) {
+        return (int) Math.min(10, Math.max(0, Math.round(totalRainfallInches * 2)));
+    }
+
+    /**
+     * Get expected rainfall for each hour, starting with the current hour.
+     * The week-long series is cached per cell like the forecast; hours past its end
+     * repeat the last hour.
+     *
+     * @return Expected rainfall in inches, one entry per hour
+     * @throws WeatherUnavailableException if nothing is cached and weather.gov cannot be reached
+     */
+    public double[] getHourlyRainfall(double latitude, double longitude, int hours) {
+        long cellKey = GeoCell.key(latitude, longitude);
+        HourlyPrecipitation series = await(lookupAsync(hourlyCache, hourlyRefreshes, cellKey,
+                () -> weatherClient.fetchHourlyPrecipitation(
+                        GeoCell.latitude(cellKey), GeoCell.longitude(cellKey), HOURLY_HOURS)))
+                .value();
+
+        double[] available = series.getRainfallInches();
+        int elapsed = (int) Math.max(0, Math.floorDiv(Instant.now().getEpochSecond(), 3600L) - series.getStartEpochHour());
+
+        double[] hourly = new double[hours];
+        if (available.length > 0) {
+            for (int h = 0; h < hours; h++) {
+                hourly[h] = available[Math.min(elapsed + h, available.length - 1)];
+            }
+        }
+        return hourly;
+    }
+
+    /**
+     * Run work that no one is waiting on, such as a fleet assessment job, on the current thread.
+     * Stale cells it reads are only refreshed while fewer than max-background-refreshes such
+     * refreshes are running, and are otherwise served stale without one, so background work
+     * cannot fill the upstream queue that interactive requests depend on.
+     */
+    public <T> T runInBackground(Supplier<T> work) {
+        if (BACKGROUND.get()) {
+            return work.get();
+        }
+        BACKGROUND.set(true);
+        try {
+            return work.get();
+        } finally {
+            BACKGROUND.remove();
+        }
+    }
 
-        // For Seattle area, increase chance of rain
-        boolean isPNW = latitude > 45 && latitude < 49 && longitude > -125 && longitude < -120;
+    /**
+     * Look up a cell, serving cached data immediately and refreshing it in the background
+     * once it is no longer fresh. Only the near cache is read on the calling thread; the
+     * shared tier is read on the upstream pool, and a cell no tier has waits on upstream,
+     * for no longer than the upstream timeout in all. No thread is held while waiting.
+     */
+    private <T> CompletableFuture<CellCache.Entry<T>> lookupAsync(CellCache<T> cache,
+                                                                  Map<Long, CompletableFuture<T>> refreshes,
+                                                                  long cellKey, Supplier<T> upstreamCall) {
+        WeatherLookupEvent event = new WeatherLookupEvent();
+        event.begin();
+
+        CellCache.Entry<T> cached = cache.getNear(cellKey);
+        if (cached != null) {
+            refreshIfStale(cache, refreshes, cellKey, upstreamCall, cached);
+            commitLookup(event, cache, cellKey, cachedOutcome(cached), 0);
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        List<WeatherForecast> forecast = new ArrayList<>();
+        // The timeout applies to a dependent future, so other callers sharing the refresh are not affected
+        long waitStart = System.nanoTime();
+        AtomicBoolean servedShared = new AtomicBoolean();
+        return readShared(cache, cellKey)
+                .thenCompose(shared -> {
+                    if (shared != null) {
+                        servedShared.set(true);
+                        refreshIfStale(cache, refreshes, cellKey, upstreamCall, shared);
+                        return CompletableFuture.completedFuture(shared);
+                    }
+                    return refresh(cache, refreshes, cellKey, upstreamCall)
+                            .thenApply(value -> new CellCache.Entry<T>(value, System.currentTimeMillis()));
+                })
+                .orTimeout(upstreamTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((entry, error) -> {
+                    String outcome = error != null ? WeatherLookupEvent.UNAVAILABLE
+                            : servedShared.get() ? cachedOutcome(entry) : WeatherLookupEvent.MISS;
+                    commitLookup(event, cache, cellKey, outcome, System.nanoTime() - waitStart);
+                    if (error != null) {
+                        throw toUnavailable(error);
+                    }
+                    return entry;
+                });
+    }
 
-        for (int i = 0; i < days; i++) {
-            // More likely to have rain in forecast for Pacific Northwest
-            int conditionIndex = isPNW ?
-                    Math.min(4, random.nextInt(3) + i % 3) : // Progressively more rainy for PNW
-                    random.nextInt(conditions.length);
+    /**
+     * Start a refresh of a cached cell that is no longer fresh.
+     * Background work only starts one while it holds a background refresh permit.
+     */
+    private <T> void refreshIfStale(CellCache<T> cache, Map<Long, CompletableFuture<T>> refreshes,
+                                 long cellKey, Supplier<T> upstreamCall, CellCache.Entry<T> cached) {
+        if (!isStale(cached)) {
+            return;
+        }
+        if (!BACKGROUND.get()) {
+            refresh(cache, refreshes, cellKey, upstreamCall);
+        } else if (backgroundRefreshPermits.tryAcquire()) {
+            refresh(cache, refreshes, cellKey, upstreamCall)
+                    .whenComplete((value, error) -> backgroundRefreshPermits.release());
+        }
+    }
 
-            double expectedRainfall = conditionIndex >= 3 ?
-                    (conditionIndex == 4 ? 1.0 + random.nextDouble() * 1.5 : 0.1 + random.nextDouble() * 0.7) :
-                    0;
+    private String cachedOutcome(CellCache.Entry<?> cached) {
+        return isStale(cached) ? WeatherLookupEvent.STALE : WeatherLookupEvent.HIT;
+    }
 
-            // Adjust soil saturation based on rainfall
-            double soilSaturation = Math.min(100, 60 + expectedRainfall * 20);
+    /**
+     * Read a cell from the shared tier on the upstream pool, completing with null if there
+     * is no shared tier, it has nothing for the cell, or the pool is full.
+     */
+    private <T> CompletableFuture<CellCache.Entry<T>> readShared(CellCache<T> cache, long cellKey) {
+        if (!cache.isShared()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return onUpstreamPool(() -> cache.get(cellKey));
+    }
 
-            // Calculate flood risk
-            int floodRisk = calculateSimpleFloodRisk(expectedRainfall, conditionIndex);
-            String riskDesc = getRiskDescription(floodRisk);
+    /**
+     * Run a blocking shared-tier read on the upstream pool, completing with null if the pool is full.
+     */
+    private <R> CompletableFuture<R> onUpstreamPool(Supplier<R> read) {
+        try {
+            return CompletableFuture.supplyAsync(read, upstreamPool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
-            forecast.add(WeatherForecast.builder()
-                    .latitude(latitude)
-                    .longitude(longitude)
-                    .forecastDate(LocalDate.now().plusDays(i))
-                    .conditions(conditions[conditionIndex])
-                    .description("Simulated forecast data for development")
-                    .highTemperatureFahrenheit(45 + random.nextDouble() * 20) // 45-65°F
-                    .lowTemperatureFahrenheit(35 + random.nextDouble() * 15) // 35-50°F
-                    .precipitationProbability(conditionIndex >= 2 ? 50 + random.nextDouble() * 50 : 0)
-                    .expectedRainfallInches(expectedRainfall)
-                    .humidity(70 + random.nextDouble() * 30) // 70-100%
-                    .windSpeedMph(5 + random.nextDouble() * 15) // 5-20 mph
-                    .floodRiskLevel(floodRisk)
-                    .floodRiskDescription(riskDesc)
-                    .soilSaturationPct(soilSaturation)
-                    .build());
+    private static void commitLookup(WeatherLookupEvent event, CellCache<?> cache, long cellKey,
+                                     String outcome, long upstreamNanos) {
+        if (event.shouldCommit()) {
+            event.cache = cache.getRegion();
+            event.cell = cellKey;
+            event.latitude = GeoCell.latitude(cellKey);
+            event.longitude = GeoCell.longitude(cellKey);
+            event.outcome = outcome;
+            event.upstreamLatency = upstreamNanos;
+            event.commit();
         }
+    }
 
-        return forecast;
+    private static WeatherUnavailableException toUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof WeatherUnavailableException unavailable) {
+            return unavailable;
+        }
+        if (cause instanceof TimeoutException) {
+            return new WeatherUnavailableException("Timed out waiting for weather.gov", cause);
+        }
+        return new WeatherUnavailableException("Weather request failed: " + cause.getMessage(), cause);
     }
 
     /**
-     * Simple formula to calculate flood risk based on rainfall and conditions.
-     * This is a simplified algorithm for development purposes.
+     * Wait for an async lookup from a blocking caller.
      */
-    private int calculateSimpleFloodRisk(double rainfall, int conditionIndex) {
-        // Start with base risk from rainfall amount
-        double baseRisk = rainfall * 2.5; // 0.5" rain = risk level 1.25, 2" rain = risk level 5
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw toUnavailable(e);
+        }
+    }
 
-        // Adjust for weather conditions
-        double conditionMultiplier = 1.0;
-        if (conditionIndex == 4) { // Heavy rain
-            conditionMultiplier = 1.5;
-        } else if (conditionIndex == 3) { // Light rain
-            conditionMultiplier = 1.2;
+    /**
+     * Start a refresh of a cell unless one is already running.
+     * The call runs on the upstream pool behind the rate limiter and circuit breaker.
+     */
+    private <T> CompletableFuture<T> refresh(CellCache<T> cache,
+                                             Map<Long, CompletableFuture<T>> refreshes,
+                                             long cellKey, Supplier<T> upstreamCall) {
+        CompletableFuture<T> refresh = new CompletableFuture<>();
+        CompletableFuture<T> existing = refreshes.putIfAbsent(cellKey, refresh);
+        if (existing != null) {
+            return existing;
         }
 
-        int riskLevel = (int) Math.min(10, Math.round(baseRisk * conditionMultiplier));
-        return Math.max(0, riskLevel); // Ensure risk is between 0-10
+        Supplier<T> guardedCall = CircuitBreaker.decorateSupplier(circuitBreaker,
+                RateLimiter.decorateSupplier(rateLimiter, upstreamCall));
+        try {
+            upstreamPool.execute(() -> {
+                WeatherLookupEvent event = new WeatherLookupEvent();
+                event.begin();
+                long fetchStart = System.nanoTime();
+                CompletableFuture<T> fetch;
+                try {
+                    fetch = fetchOnce(cache, cellKey, guardedCall);
+                } catch (RuntimeException e) {
+                    fetch = CompletableFuture.failedFuture(e);
+                }
+                fetch.whenComplete((value, error) -> {
+                    if (error == null) {
+                        commitLookup(event, cache, cellKey, WeatherLookupEvent.FETCHED, System.nanoTime() - fetchStart);
+                        refresh.complete(value);
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        commitLookup(event, cache, cellKey, WeatherLookupEvent.FAILED, System.nanoTime() - fetchStart);
+                        log.debug("Weather refresh failed for cell {}: {}", cellKey, cause.getMessage());
+                        refresh.completeExceptionally(cause);
+                    }
+                    refreshes.remove(cellKey, refresh);
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            refreshes.remove(cellKey, refresh);
+            refresh.completeExceptionally(new WeatherUnavailableException("Too many pending weather.gov requests", e));
+        }
+        return refresh;
     }
 
     /**
-     * Get a description of flood risk based on the numeric level.
+     * Fetch a cell from upstream unless another replica already has, or is about to.
      */
-    private String getRiskDescription(int riskLevel) {
-        if (riskLevel >= 8) {
-            return "High risk of flooding. Consider alternate routes.";
-        } else if (riskLevel >= 5) {
-            return "Moderate flood risk. Monitor conditions.";
-        } else if (riskLevel >= 2) {
-            return "Low flood risk. Exercise normal caution.";
-        } else {
-            return "Minimal flood risk.";
+    private <T> CompletableFuture<T> fetchOnce(CellCache<T> cache, long cellKey, Supplier<T> guardedCall) {
+        String lockToken = cache.tryLock(cellKey, Duration.ofMillis(upstreamTimeoutMillis));
+        if (lockToken == null) {
+            // Another replica is fetching this cell; check back for its result without holding a thread
+            return awaitShared(cache, cellKey, SHARED_WAIT_ATTEMPTS);
         }
+
+        try {
+            CellCache.Entry<T> shared = cache.getShared(cellKey);
+            if (shared != null && !isStale(shared)) {
+                return CompletableFuture.completedFuture(shared.value());
+            }
+
+            T value = guardedCall.get();
+            cache.put(cellKey, value, System.currentTimeMillis());
+            if (feedsFloodRisk(cache)) {
+                floodRiskCache.invalidate(cellKey);
+            }
+            return CompletableFuture.completedFuture(value);
+        } finally {
+            cache.unlock(cellKey, lockToken);
+        }
+    }
+
+    /**
+     * Wait for another replica to share a fresh value for a cell, re-checking the shared tier
+     * a few times over the upstream timeout. Fails rather than fetching the cell alongside
+     * the replica that holds the lock.
+     */
+    private <T> CompletableFuture<T> awaitShared(CellCache<T> cache, long cellKey, int attemptsLeft) {
+        Executor afterWait = CompletableFuture.delayedExecutor(
+                upstreamTimeoutMillis / SHARED_WAIT_ATTEMPTS, TimeUnit.MILLISECONDS);
+        return CompletableFuture.runAsync(() -> { }, afterWait)
+                .thenCompose(ignored -> onUpstreamPool(() -> cache.getShared(cellKey)))
+                .thenCompose(shared -> {
+                    if (shared != null && !isStale(shared)) {
+                        return CompletableFuture.completedFuture(shared.value());
+                    }
+                    if (attemptsLeft > 1) {
+                        return awaitShared(cache, cellKey, attemptsLeft - 1);
+                    }
+                    return CompletableFuture.failedFuture(new WeatherUnavailableException(
+                            "Another replica is still fetching this cell from weather.gov", null));
+                });
+    }
+
+    /**
+     * Cell caches, exposed so they can be written to and restored from snapshots.
+     */
+    CellCache<WeatherData> currentWeatherCache() {
+        return currentCache;
+    }
+
+    CellCache<List<WeatherForecast>> forecastCache() {
+        return forecastCache;
+    }
+
+    CellCache<Integer> floodRiskCache() {
+        return floodRiskCache;
+    }
+
+    CellCache<HourlyPrecipitation> hourlyCache() {
+        return hourlyCache;
+    }
+
+    /**
+     * Whether flood risk is computed from a cache, so new values there make cached risk outdated.
+     * Hourly precipitation only feeds departure timing, not flood risk.
+     */
+    private boolean feedsFloodRisk(CellCache<?> cache) {
+        return cache == currentCache || cache == forecastCache;
+    }
+
+    private boolean isStale(CellCache.Entry<?> cached) {
+        return System.currentTimeMillis() - cached.fetchedAt() > freshMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        upstreamPool.shutdownNow();
+    }
+
+    /**
+     * Flood risk for a cell, and whether it was computed from fresh weather.
+     */
+    public record FloodRisk(int level, boolean fresh) {
     }
-}
\ No newline at end of file
+}
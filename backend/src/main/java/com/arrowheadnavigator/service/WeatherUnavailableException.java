@@ -0,0 +1,16 @@
+package com.arrowheadnavigator.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when weather is needed for a location that has never been cached
+ * and weather.gov cannot currently provide it.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WeatherUnavailableException extends RuntimeException {
+
+    public WeatherUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,83 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.RiskAlert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Alert sink that POSTs each alert as JSON to the subscription's webhook URL.
+ * Only http(s) URLs on allowed hosts are accepted, so subscriptions cannot make the
+ * backend call into its own network; an entry starting with "." allows every subdomain.
+ */
+@Component
+public class WebhookAlertSink implements AlertSink {
+
+    private final RestTemplate restTemplate;
+    private final List<String> allowedHosts;
+
+    public WebhookAlertSink(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${alerts.webhook.timeout-ms:2000}") long timeoutMillis,
+            @Value("${alerts.webhook.allowed-hosts:}") List<String> allowedHosts) {
+        // A slow receiver only holds a delivery thread this long
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMillis))
+                .setReadTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+        this.allowedHosts = allowedHosts.stream()
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void validate(AlertSubscription subscription) {
+        if (subscription.getWebhookUrl() == null) {
+            throw new IllegalArgumentException("Webhook subscriptions need a webhookUrl");
+        }
+
+        URI uri;
+        try {
+            uri = new URI(subscription.getWebhookUrl());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid webhookUrl");
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IllegalArgumentException("webhookUrl must be an http or https URL");
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null || !isAllowed(uri.getHost())) {
+            throw new IllegalArgumentException("webhookUrl host is not allowed");
+        }
+    }
+
+    @Override
+    public void deliver(AlertSubscription subscription, RiskAlert alert) {
+        restTemplate.postForEntity(subscription.getWebhookUrl(), alert, Void.class);
+    }
+
+    private boolean isAllowed(String host) {
+        String normalized = host.toLowerCase(Locale.ROOT);
+        for (String allowed : allowedHosts) {
+            if (allowed.startsWith(".") ? normalized.endsWith(allowed) : normalized.equals(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.arrowheadnavigator.util;
+
+/**
+ * Quantizes coordinates onto a fixed latitude/longitude grid.
+ * Nearby lookups that fall in the same cell can share one computed result.
+ */
+public final class GeoCell {
+
+    // Roughly 1.1 km north-south; fine enough for street-level flood risk
+    public static final double CELL_DEGREES = 0.01;
+
+    private GeoCell() {
+    }
+
+    /**
+     * Pack the cell containing a coordinate into a single long key.
+     */
+    public static long key(double latitude, double longitude) {
+        return key(latitude, longitude, CELL_DEGREES);
+    }
+
+    /**
+     * Pack the cell containing a coordinate on a grid of a different size.
+     */
+    public static long key(double latitude, double longitude, double cellDegrees) {
+        int latIndex = (int) Math.floor((latitude + 90.0) / cellDegrees);
+        int lonIndex = (int) Math.floor((longitude + 180.0) / cellDegrees);
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Latitude of the center of a cell.
+     */
+    public static double latitude(long key) {
+        return latitude(key, CELL_DEGREES);
+    }
+
+    /**
+     * Longitude of the center of a cell.
+     */
+    public static double longitude(long key) {
+        return longitude(key, CELL_DEGREES);
+    }
+
+    /**
+     * Latitude of the center of a cell on a grid of a different size.
+     */
+    public static double latitude(long key, double cellDegrees) {
+        return ((int) (key >> 32) + 0.5) * cellDegrees - 90.0;
+    }
+
+    /**
+     * Longitude of the center of a cell on a grid of a different size.
+     */
+    public static double longitude(long key, double cellDegrees) {
+        return ((int) key + 0.5) * cellDegrees - 180.0;
+    }
+}
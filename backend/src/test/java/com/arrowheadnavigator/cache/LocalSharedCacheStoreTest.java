@@ -0,0 +1,41 @@
+package com.arrowheadnavigator.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalSharedCacheStoreTest {
+
+    private final LocalSharedCacheStore store = new LocalSharedCacheStore();
+
+    @Test
+    void lockIsExclusiveUntilReleased() {
+        String token = store.tryLock("cell", Duration.ofSeconds(10));
+        assertNotNull(token);
+        assertNull(store.tryLock("cell", Duration.ofSeconds(10)));
+
+        store.unlock("cell", token);
+        assertNotNull(store.tryLock("cell", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void releasingAnExpiredLockLeavesTheNewHolderAlone() throws InterruptedException {
+        String first = store.tryLock("cell", Duration.ofMillis(1));
+        Thread.sleep(20);
+
+        String second = store.tryLock("cell", Duration.ofSeconds(10));
+        assertNotNull(second);
+        assertNotEquals(first, second);
+
+        // The first holder finishes late; the second still holds the lock
+        store.unlock("cell", first);
+        assertNull(store.tryLock("cell", Duration.ofSeconds(10)));
+
+        store.unlock("cell", second);
+        assertNotNull(store.tryLock("cell", Duration.ofSeconds(10)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.arrowheadnavigator.cache;
+
+import com.arrowheadnavigator.util.GeoCell;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaypointRiskCacheTest {
+
+    private static final long BUCKET_MILLIS = 60_000;
+
+    // Far enough past the epoch that the bucket number needs most of its 24 bits
+    private static final long NOW = 9_000_000L * BUCKET_MILLIS + 1234;
+
+    private static final long SEATTLE = GeoCell.key(47.6062, -122.3321);
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void returnsScoreUntilTheBucketEnds(boolean offHeap) {
+        WaypointRiskCache cache = new WaypointRiskCache(1024, BUCKET_MILLIS, offHeap);
+
+        assertEquals(WaypointRiskCache.MISSING, cache.get(SEATTLE, NOW));
+        cache.put(SEATTLE, NOW, 7);
+        assertEquals(7, cache.get(SEATTLE, NOW));
+
+        // Later in the same bucket, but not in the next one
+        long bucketEnd = (NOW / BUCKET_MILLIS + 1) * BUCKET_MILLIS;
+        assertEquals(7, cache.get(SEATTLE, bucketEnd - 1));
+        assertEquals(WaypointRiskCache.MISSING, cache.get(SEATTLE, bucketEnd));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void packsScoreAndCellWithoutOverlap(boolean offHeap) {
+        WaypointRiskCache cache = new WaypointRiskCache(1024, BUCKET_MILLIS, offHeap);
+        long neighbour = SEATTLE + (1L << 32);
+        long southWestCorner = GeoCell.key(-90, -180);
+        long northEastCorner = GeoCell.key(89.999, 179.999);
+
+        cache.put(SEATTLE, NOW, 255);
+        cache.put(neighbour, NOW, 0);
+        cache.put(southWestCorner, NOW, 1);
+        cache.put(northEastCorner, NOW, 128);
+
+        assertEquals(255, cache.get(SEATTLE, NOW));
+        assertEquals(0, cache.get(neighbour, NOW));
+        assertEquals(1, cache.get(southWestCorner, NOW));
+        assertEquals(128, cache.get(northEastCorner, NOW));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void updatesScoreInPlace(boolean offHeap) {
+        WaypointRiskCache cache = new WaypointRiskCache(16, BUCKET_MILLIS, offHeap);
+
+        cache.put(SEATTLE, NOW, 3);
+        cache.put(SEATTLE, NOW, 9);
+        assertEquals(9, cache.get(SEATTLE, NOW));
+
+        // An update must not leave a second entry behind for invalidate to miss
+        cache.invalidate(SEATTLE, NOW);
+        assertEquals(WaypointRiskCache.MISSING, cache.get(SEATTLE, NOW));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void invalidateKeepsLaterEntriesReachable(boolean offHeap) {
+        // One probe window, so every entry shares a chain with every other
+        WaypointRiskCache cache = new WaypointRiskCache(16, BUCKET_MILLIS, offHeap);
+        List<Long> cells = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            long cell = cell(i);
+            cells.add(cell);
+            cache.put(cell, NOW, i);
+        }
+
+        for (int i = 0; i < cells.size(); i += 2) {
+            cache.invalidate(cells.get(i), NOW);
+        }
+
+        for (int i = 0; i < cells.size(); i++) {
+            int expected = i % 2 == 0 ? WaypointRiskCache.MISSING : i;
+            assertEquals(expected, cache.get(cells.get(i), NOW), "cell " + i);
+        }
+
+        // Invalidated slots are reused by later writes
+        cache.put(cells.get(0), NOW, 42);
+        assertEquals(42, cache.get(cells.get(0), NOW));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void ignoresCellsOutsideTheEntryLayout(boolean offHeap) {
+        WaypointRiskCache cache = new WaypointRiskCache(1024, BUCKET_MILLIS, offHeap);
+        long outOfRange = GeoCell.key(500, -122.3321);
+
+        cache.put(outOfRange, NOW, 5);
+        assertEquals(WaypointRiskCache.MISSING, cache.get(outOfRange, NOW));
+        cache.invalidate(outOfRange, NOW);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrentWritersNeverTearEntries(boolean offHeap) throws Exception {
+        WaypointRiskCache cache = new WaypointRiskCache(4096, BUCKET_MILLIS, offHeap);
+        int threads = 4;
+        int cellsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    // Every thread writes every cell, each with the score derived from that cell
+                    for (int round = 0; round < 20; round++) {
+                        for (int i = 0; i < threads * cellsPerThread; i++) {
+                            cache.put(cell(i), NOW, i & 0xFF);
+                            int score = cache.get(cell(i), NOW);
+                            assertTrue(score == WaypointRiskCache.MISSING || score == (i & 0xFF));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int found = 0;
+        for (int i = 0; i < threads * cellsPerThread; i++) {
+            int score = cache.get(cell(i), NOW);
+            if (score != WaypointRiskCache.MISSING) {
+                assertEquals(i & 0xFF, score, "cell " + i);
+                found++;
+            }
+        }
+        // Half full, so overflowing probe windows should be rare
+        assertTrue(found > threads * cellsPerThread * 9 / 10, "found " + found);
+    }
+
+    /**
+     * Distinct cells in a block near Seattle, built from grid indexes so rounding cannot merge two.
+     */
+    private static long cell(int i) {
+        return SEATTLE + ((long) (i / 100) << 32) + i % 100;
+    }
+}
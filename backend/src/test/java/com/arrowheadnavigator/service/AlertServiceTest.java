@@ -0,0 +1,159 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.RiskAlert;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlertServiceTest {
+
+    private final List<DeliveryRoute> routes = new ArrayList<>();
+    private AlertService alertService;
+
+    @BeforeEach
+    void setUp() {
+        RouteService routeService = mock(RouteService.class);
+        when(routeService.listRoutes()).thenAnswer(invocation -> new ArrayList<>(routes));
+        alertService = new AlertService(routeService, List.of(new LogAlertSink()), 1, 100, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        alertService.shutdown();
+    }
+
+    @Test
+    void raisesAtThresholdAndClearsOnlyPastHysteresis() {
+        DeliveryRoute route = route("R-1", "Acme", 47.6, -122.3);
+        alertService.subscribe(subscription().routeId("R-1").threshold(6).hysteresis(2).build());
+
+        assess(route, 3, 6);
+        assess(route, 6, 5);
+        assess(route, 5, 4);
+        assertEquals(List.of(RiskAlert.Type.RISK_RAISED), types());
+
+        assess(route, 4, 3);
+        assertEquals(List.of(RiskAlert.Type.RISK_CLEARED, RiskAlert.Type.RISK_RAISED), types());
+        assertEquals(4, alertService.getRecentAlerts().get(0).getPreviousRiskLevel());
+    }
+
+    @Test
+    void onlySubscriptionsWithThresholdsCrossedAreAlerted() {
+        DeliveryRoute route = route("R-1", "Acme", 47.6, -122.3);
+        AlertSubscription low = alertService.subscribe(subscription().supplier("Acme").threshold(3).build());
+        alertService.subscribe(subscription().supplier("Acme").threshold(8).build());
+        alertService.subscribe(subscription().supplier("Other").threshold(3).build());
+
+        assess(route, 2, 5);
+
+        List<RiskAlert> alerts = alertService.getRecentAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(low.getId(), alerts.get(0).getSubscriptionId());
+    }
+
+    @Test
+    void areaSubscriptionsMatchOnlyRoutesInsideTheBounds() {
+        DeliveryRoute inside = route("R-1", "Acme", 47.65, -122.35);
+        DeliveryRoute outside = route("R-2", "Acme", 47.75, -122.35);
+        alertService.subscribe(subscription()
+                .minLatitude(47.6).maxLatitude(47.7).minLongitude(-122.4).maxLongitude(-122.3)
+                .threshold(5).build());
+
+        assess(outside, 2, 9);
+        assess(inside, 2, 9);
+
+        List<RiskAlert> alerts = alertService.getRecentAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals("R-1", alerts.get(0).getRouteId());
+    }
+
+    @Test
+    void debounceHoldsBackChangesInsideTheWindow() {
+        DeliveryRoute route = route("R-1", "Acme", 47.6, -122.3);
+        alertService.subscribe(subscription().routeId("R-1").threshold(5).debounceSeconds(3600).build());
+
+        assess(route, 2, 7);
+        assess(route, 7, 1);
+        assess(route, 1, 8);
+
+        assertEquals(List.of(RiskAlert.Type.RISK_RAISED), types());
+    }
+
+    @Test
+    void newSubscriptionIsCheckedAgainstCurrentRisk() {
+        DeliveryRoute risky = route("R-1", "Acme", 47.6, -122.3);
+        risky.setRiskLevel(8);
+        DeliveryRoute calm = route("R-2", "Acme", 47.6, -122.3);
+        calm.setRiskLevel(2);
+        routes.addAll(List.of(risky, calm));
+
+        alertService.subscribe(subscription().supplier("Acme").threshold(6).build());
+
+        List<RiskAlert> alerts = alertService.getRecentAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals("R-1", alerts.get(0).getRouteId());
+        assertEquals(RiskAlert.Type.RISK_RAISED, alerts.get(0).getType());
+    }
+
+    @Test
+    void riskPointAlertsCarryNoPreviousLevel() {
+        DeliveryRoute route = route("R-1", "Acme", 47.6, -122.3);
+        route.getWaypoints().get(0).setLocalRiskLevel(9);
+        alertService.subscribe(subscription().routeId("R-1").threshold(10).notifyRiskPoints(true).build());
+
+        route.setRiskLevel(4);
+        alertService.onRouteRiskAssessed(new RouteRiskAssessedEvent(route, 4, List.of(0)));
+
+        RiskAlert alert = alertService.getRecentAlerts().get(0);
+        assertEquals(RiskAlert.Type.RISK_POINT, alert.getType());
+        assertEquals(9, alert.getRiskLevel());
+        assertNull(alert.getPreviousRiskLevel());
+    }
+
+    @Test
+    void rejectsInvalidSubscriptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> alertService.subscribe(subscription().routeId("R-1").supplier("Acme").threshold(5).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> alertService.subscribe(subscription().routeId("R-1").threshold(5).hysteresis(5).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> alertService.subscribe(subscription().routeId("R-1").threshold(5).sink("pager").build()));
+        assertTrue(alertService.getSubscriptions().isEmpty());
+    }
+
+    private void assess(DeliveryRoute route, int previousRisk, int risk) {
+        route.setRiskLevel(risk);
+        alertService.onRouteRiskAssessed(new RouteRiskAssessedEvent(route, previousRisk, List.of()));
+    }
+
+    private List<RiskAlert.Type> types() {
+        return alertService.getRecentAlerts().stream().map(RiskAlert::getType).toList();
+    }
+
+    private static AlertSubscription.AlertSubscriptionBuilder subscription() {
+        return AlertSubscription.builder().sink("log");
+    }
+
+    private static DeliveryRoute route(String routeId, String supplier, double latitude, double longitude) {
+        List<RouteWaypoint> waypoints = new ArrayList<>();
+        waypoints.add(RouteWaypoint.builder().latitude(latitude).longitude(longitude).sequenceNumber(0).build());
+        return DeliveryRoute.builder()
+                .routeId(routeId)
+                .supplier(supplier)
+                .waypoints(waypoints)
+                .build();
+    }
+}
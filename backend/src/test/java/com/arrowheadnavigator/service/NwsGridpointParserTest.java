@@ -0,0 +1,109 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NwsGridpointParserTest {
+
+    // 2024-01-15T00:00:00Z, the first valid time in the gridpoint fixture
+    private static final long FIXTURE_START_HOUR = 473688;
+
+    private static final double MILLIMETERS_PER_INCH = 25.4;
+
+    private final NwsGridpointParser parser = new NwsGridpointParser();
+
+    @Test
+    void readsForecastGridDataUrlFromPoints() throws IOException {
+        try (InputStream in = fixture("points-47.6062,-122.3321.json")) {
+            assertEquals("https://api.weather.gov/gridpoints/SEW/124,67", parser.parseForecastGridDataUrl(in));
+        }
+    }
+
+    @Test
+    void pointsWithoutGridDataUrlAreRejected() {
+        assertThrows(IOException.class, () -> parser.parseForecastGridDataUrl(json("{\"properties\": {}}")));
+    }
+
+    @Test
+    void reducesGridpointFixtureToHourlySeries() throws IOException {
+        HourlyPrecipitation series;
+        try (InputStream in = fixture("gridpoint-SEW-124-67.json")) {
+            series = parser.parseGridpoint(in, NwsGridpointParser.UNANCHORED, 168);
+        }
+
+        assertEquals(FIXTURE_START_HOUR, series.getStartEpochHour());
+        assertEquals(168, series.getRainfallInches().length);
+
+        // 6-hour amounts in millimeters are spread evenly and converted to inches
+        assertEquals(5.7758 / 6 / MILLIMETERS_PER_INCH, series.getRainfallInches()[0], 1e-9);
+        assertEquals(5.7758 / 6 / MILLIMETERS_PER_INCH, series.getRainfallInches()[5], 1e-9);
+        assertEquals(5.2315 / 6 / MILLIMETERS_PER_INCH, series.getRainfallInches()[6], 1e-9);
+        assertEquals(4.508689, Arrays.stream(series.getRainfallInches()).sum(), 1e-6);
+
+        // Probabilities apply to every hour of their interval
+        assertArrayEquals(new double[]{50, 53, 53, 71, 71, 71, 86, 74},
+                Arrays.copyOf(series.getProbabilityPercent(), 8));
+        assertEquals(8080, Arrays.stream(series.getProbabilityPercent()).sum(), 1e-9);
+    }
+
+    @Test
+    void anchoredSeriesDropsHoursBeforeTheStart() throws IOException {
+        HourlyPrecipitation series;
+        try (InputStream in = fixture("gridpoint-SEW-124-67.json")) {
+            series = parser.parseGridpoint(in, FIXTURE_START_HOUR + 6, 24);
+        }
+
+        assertEquals(FIXTURE_START_HOUR + 6, series.getStartEpochHour());
+        assertEquals(5.2315 / 6 / MILLIMETERS_PER_INCH, series.getRainfallInches()[0], 1e-9);
+        assertEquals(86, series.getProbabilityPercent()[0], 1e-9);
+    }
+
+    @Test
+    void parsesDayDurationsOffsetsAndTrailingUnits() throws IOException {
+        // Unit after the values, a duration in days and hours, a negative offset and a null value
+        String document = """
+                {"properties": {
+                  "quantitativePrecipitation": {
+                    "values": [
+                      {"validTime": "2024-01-14T16:00:00-08:00/P1DT12H", "value": 3.6},
+                      {"validTime": "2024-01-16T12:00:00+00:00/PT2H", "value": null}
+                    ],
+                    "uom": "wmoUnit:in"
+                  }
+                }}""";
+
+        HourlyPrecipitation series = parser.parseGridpoint(json(document), FIXTURE_START_HOUR, 48);
+
+        assertEquals(0.1, series.getRainfallInches()[0], 1e-9);
+        assertEquals(0.1, series.getRainfallInches()[35], 1e-9);
+        assertEquals(0, series.getRainfallInches()[36], 1e-9);
+        assertEquals(0, series.getRainfallInches()[47], 1e-9);
+    }
+
+    @Test
+    void malformedValidTimeIsRejected() {
+        String document = """
+                {"properties": {"probabilityOfPrecipitation": {"values": [{"validTime": "2024-01-15", "value": 1}]}}}""";
+
+        assertThrows(IOException.class,
+                () -> parser.parseGridpoint(json(document), NwsGridpointParser.UNANCHORED, 24));
+    }
+
+    private static InputStream fixture(String name) {
+        return NwsGridpointParserTest.class.getResourceAsStream("/nws/" + name);
+    }
+
+    private static InputStream json(String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+}
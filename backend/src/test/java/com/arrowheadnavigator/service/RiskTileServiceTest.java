@@ -0,0 +1,123 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.CellCacheFactory;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.util.GeoCell;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RiskTileServiceTest {
+
+    private static final double LATITUDE = 47.6062;
+    private static final double LONGITUDE = -122.3321;
+
+    private final AtomicInteger currentWeatherFetches = new AtomicInteger();
+    private NwsWeatherClient weatherClient;
+    private WeatherService weatherService;
+    private RiskTileService riskTileService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        weatherClient = new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0) {
+            @Override
+            public WeatherData fetchCurrentWeather(double latitude, double longitude) {
+                currentWeatherFetches.incrementAndGet();
+                return super.fetchCurrentWeather(latitude, longitude);
+            }
+        };
+        weatherService = new WeatherService(weatherClient,
+                new CellCacheFactory(new ObjectMapper(), mock(ObjectProvider.class), 30, 3600),
+                300, 2000, 1000, 4, 1024, 8);
+        riskTileService = new RiskTileService(weatherService, 64, 15, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        riskTileService.shutdown();
+        weatherService.shutdown();
+    }
+
+    @Test
+    void lowZoomTileIsDrawnOnCoarseGridAndCached() {
+        int z = 5;
+        RiskTileService.Tile tile = riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z));
+
+        // A fine grid would need over a thousand cells for this tile
+        assertTrue(currentWeatherFetches.get() <= 16 * 16, "fetched " + currentWeatherFetches.get() + " cells");
+        int fetches = currentWeatherFetches.get();
+
+        assertTrue(tile.complete());
+        assertSame(tile.png(), riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z)).png());
+        assertEquals(fetches, currentWeatherFetches.get());
+    }
+
+    @Test
+    void invalidatingCellEvictsCoarseTile() {
+        int z = 5;
+        RiskTileService.Tile tile = riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z));
+
+        riskTileService.invalidateCell(LATITUDE, LONGITUDE);
+
+        assertNotSame(tile.png(), riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z)).png());
+    }
+
+    @Test
+    void staleCachedRiskCompletesTile() {
+        // Risk cached long ago, with weather.gov down so nothing can be re-evaluated
+        for (int lat = 4755; lat < 4765; lat++) {
+            for (int lon = -12240; lon < -12225; lon++) {
+                weatherService.floodRiskCache().put(
+                        GeoCell.key((lat + 0.5) / 100.0, (lon + 0.5) / 100.0), 3, 0L);
+            }
+        }
+        weatherClient.setFaults(0, 1.0);
+
+        int z = 14;
+        RiskTileService.Tile tile = riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z));
+
+        assertTrue(tile.complete());
+        assertSame(tile.png(), riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z)).png());
+        assertEquals(0, currentWeatherFetches.get());
+    }
+
+    @Test
+    void unevaluatedCellsAreDrawnAsUnknown() throws IOException {
+        weatherClient.setFaults(0, 1.0);
+
+        int z = 14;
+        RiskTileService.Tile tile = riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z));
+
+        assertFalse(tile.complete());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(tile.png()));
+        assertEquals(RiskTileService.UNKNOWN_COLOR, image.getRGB(128, 128));
+        assertNotSame(tile.png(), riskTileService.getTile(z, tileX(LONGITUDE, z), tileY(LATITUDE, z)).png());
+    }
+
+    private static int tileX(double longitude, int z) {
+        return (int) Math.floor((longitude + 180.0) / 360.0 * (1 << z));
+    }
+
+    private static int tileY(double latitude, int z) {
+        double radians = Math.toRadians(latitude);
+        double y = (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+        return (int) Math.floor(y * (1 << z));
+    }
+}
@@ -0,0 +1,100 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.DepartureRisk;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.model.WeatherData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteRiskTimelineTest {
+
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setUp() {
+        weatherService = mock(WeatherService.class);
+        when(weatherService.rainfallToRisk(anyDouble())).thenCallRealMethod();
+        when(weatherService.getCurrentWeather(anyDouble(), anyDouble()))
+                .thenReturn(WeatherData.builder().recentRainfallInches(1.5).build());
+        // Rain bursts that differ by cell, so waypoints change risk at different hours
+        when(weatherService.getHourlyRainfall(anyDouble(), anyDouble(), anyInt())).thenAnswer(invocation -> {
+            double latitude = invocation.getArgument(0);
+            int hours = invocation.getArgument(2);
+            Random random = new Random(Double.doubleToLongBits(latitude));
+            double[] hourly = new double[hours];
+            for (int h = 0; h < hours; h++) {
+                hourly[h] = random.nextDouble() < 0.3 ? random.nextDouble() * 0.6 : 0;
+            }
+            return hourly;
+        });
+    }
+
+    @Test
+    void scanMatchesEvaluatingEachDeparture() {
+        DeliveryRoute route = route(8, 95);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(7);
+
+        for (int stepMinutes : new int[]{5, 15, 45, 60, 90, 240}) {
+            LocalDateTime end = start.plusHours(72);
+            RouteRiskTimeline timeline = RouteRiskTimeline.build(route, weatherService, end);
+
+            List<DepartureRisk> slots = timeline.scan(start, end, stepMinutes);
+            assertEquals(72 * 60 / stepMinutes + 1, slots.size());
+            for (DepartureRisk slot : slots) {
+                DepartureRisk expected = timeline.evaluate(slot.getDepartureTime());
+                assertEquals(expected.getRiskLevel(), slot.getRiskLevel(),
+                        "risk at " + slot.getDepartureTime() + " every " + stepMinutes + " minutes");
+                assertEquals(expected.getPeakRiskSequenceNumber(), slot.getPeakRiskSequenceNumber(),
+                        "peak waypoint at " + slot.getDepartureTime() + " every " + stepMinutes + " minutes");
+            }
+        }
+    }
+
+    @Test
+    void scanHandlesRouteWithoutWaypoints() {
+        LocalDateTime start = LocalDateTime.now();
+        List<DepartureRisk> slots = RouteRiskTimeline.build(route(0, 30), weatherService, start.plusHours(2))
+                .scan(start, start.plusHours(2), 60);
+
+        assertEquals(3, slots.size());
+        assertEquals(0, slots.get(0).getRiskLevel());
+    }
+
+    @Test
+    void rejectsDeparturesPastForecastHorizon() {
+        assertThrows(IllegalArgumentException.class, () -> RouteRiskTimeline.build(
+                route(3, 60), weatherService, LocalDateTime.of(9999, 12, 31, 0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> RouteRiskTimeline.build(
+                route(3, 60), weatherService, LocalDateTime.now().plusHours(WeatherService.HOURLY_HOURS + 1)));
+    }
+
+    private static DeliveryRoute route(int waypointCount, int estimatedMinutes) {
+        List<RouteWaypoint> waypoints = new ArrayList<>();
+        for (int i = 0; i < waypointCount; i++) {
+            waypoints.add(RouteWaypoint.builder()
+                    .latitude(47.60 + i * 0.013)
+                    .longitude(-122.33 + i * 0.011)
+                    .sequenceNumber(i)
+                    .build());
+        }
+        return DeliveryRoute.builder()
+                .routeId("R-TEST")
+                .estimatedMinutes(estimatedMinutes)
+                .waypoints(waypoints)
+                .build();
+    }
+}
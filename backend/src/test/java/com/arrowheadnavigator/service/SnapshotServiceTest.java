@@ -0,0 +1,218 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.CellCache;
+import com.arrowheadnavigator.cache.CellCacheFactory;
+import com.arrowheadnavigator.cache.SharedCacheStore;
+import com.arrowheadnavigator.model.DeliveryRoute;
+import com.arrowheadnavigator.model.HourlyPrecipitation;
+import com.arrowheadnavigator.model.RiskFactor;
+import com.arrowheadnavigator.model.RouteWaypoint;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.model.WeatherForecast;
+import com.arrowheadnavigator.util.GeoCell;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotServiceTest {
+
+    private static final double LATITUDE = 47.6062;
+    private static final double LONGITUDE = -122.3321;
+    private static final long CELL = GeoCell.key(LATITUDE, LONGITUDE);
+
+    // Header: magic, version and write time
+    private static final int HEADER_BYTES = 16;
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private final List<WeatherService> weatherServices = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = tempDir.resolve("warm-start.snapshot");
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherServices.forEach(WeatherService::shutdown);
+    }
+
+    @Test
+    void restoresRoutesAndCellCaches() throws IOException {
+        WeatherService source = weatherService();
+        source.getCurrentWeather(LATITUDE, LONGITUDE);
+        source.getWeatherForecast(LATITUDE, LONGITUDE, 3);
+        int floodRisk = source.calculateFloodRisk(LATITUDE, LONGITUDE);
+        // Fetched after the risk on purpose: an hourly fetch must not drop the risk it was computed next to
+        source.getHourlyRainfall(LATITUDE, LONGITUDE, 24);
+        assertEquals(1, source.floodRiskCache().nearEntries().size());
+        DeliveryRoute route = route();
+        writeSnapshot(source, List.of(route));
+
+        WeatherService target = weatherService();
+        RouteService routeService = mock(RouteService.class);
+        start(routeService, target, 60);
+
+        ArgumentCaptor<List<DeliveryRoute>> restored = routesCaptor();
+        verify(routeService).restoreRoutes(restored.capture());
+        assertEquals(List.of(route), restored.getValue());
+
+        WeatherData written = source.currentWeatherCache().get(CELL).value();
+        CellCache.Entry<WeatherData> weather = target.currentWeatherCache().get(CELL);
+        assertNotNull(weather);
+        assertEquals(source.currentWeatherCache().get(CELL).fetchedAt(), weather.fetchedAt());
+        assertEquals(written.getRecentRainfallInches(), weather.value().getRecentRainfallInches());
+        assertEquals(written.getConditions(), weather.value().getConditions());
+
+        List<WeatherForecast> forecast = target.forecastCache().get(CELL).value();
+        assertEquals(source.forecastCache().get(CELL).value().size(), forecast.size());
+        assertEquals(source.forecastCache().get(CELL).value().get(0).getForecastDate(), forecast.get(0).getForecastDate());
+
+        CellCache.Entry<Integer> risk = target.floodRiskCache().get(CELL);
+        assertNotNull(risk, "flood risk should survive the snapshot");
+        assertEquals(floodRisk, risk.value());
+
+        HourlyPrecipitation writtenHourly = source.hourlyCache().get(CELL).value();
+        HourlyPrecipitation hourly = target.hourlyCache().get(CELL).value();
+        assertEquals(writtenHourly.getStartEpochHour(), hourly.getStartEpochHour());
+        assertArrayEquals(writtenHourly.getRainfallInches(), hourly.getRainfallInches());
+        assertArrayEquals(writtenHourly.getProbabilityPercent(), hourly.getProbabilityPercent());
+    }
+
+    @Test
+    void weatherOlderThanMaxAgeIsNotRestored() throws Exception {
+        WeatherService source = weatherService();
+        source.getCurrentWeather(LATITUDE, LONGITUDE);
+        writeSnapshot(source, List.of(route()));
+        Thread.sleep(5);
+
+        WeatherService target = weatherService();
+        RouteService routeService = mock(RouteService.class);
+        start(routeService, target, 0);
+
+        // Routes are kept; only the weather has expired
+        verify(routeService).restoreRoutes(any());
+        assertNull(target.currentWeatherCache().get(CELL));
+    }
+
+    @Test
+    void corruptBodyIsIgnored() throws IOException {
+        WeatherService source = weatherService();
+        source.getCurrentWeather(LATITUDE, LONGITUDE);
+        writeSnapshot(source, List.of(route()));
+
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        bytes[HEADER_BYTES + (bytes.length - HEADER_BYTES) / 2] ^= 0x40;
+        Files.write(snapshotPath, bytes);
+
+        assertNothingRestored();
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreIgnored() throws IOException {
+        WeatherService source = weatherService();
+        writeSnapshot(source, List.of(route()));
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+
+        Files.write(snapshotPath, Arrays.copyOf(bytes, bytes.length - 3));
+        assertNothingRestored();
+
+        // Same body under another format version
+        bytes[7] ^= 0x01;
+        Files.write(snapshotPath, bytes);
+        assertNothingRestored();
+
+        Files.write(snapshotPath, "not a snapshot".getBytes());
+        assertNothingRestored();
+    }
+
+    private void assertNothingRestored() {
+        WeatherService target = weatherService();
+        RouteService routeService = mock(RouteService.class);
+        start(routeService, target, 60);
+
+        verify(routeService, never()).restoreRoutes(any());
+        assertNull(target.currentWeatherCache().get(CELL));
+        assertTrue(target.floodRiskCache().nearEntries().isEmpty());
+    }
+
+    private void writeSnapshot(WeatherService weatherService, List<DeliveryRoute> routes) throws IOException {
+        RouteService routeService = mock(RouteService.class);
+        when(routeService.listRoutes()).thenReturn(routes);
+        new SnapshotService(routeService, weatherService, true, snapshotPath.toString(), 300, 60).write();
+    }
+
+    private void start(RouteService routeService, WeatherService weatherService, long maxAgeMinutes) {
+        SnapshotService snapshotService = new SnapshotService(
+                routeService, weatherService, true, snapshotPath.toString(), 300, maxAgeMinutes);
+        snapshotService.start();
+        // Stops the writer thread; the snapshot it writes on the way out is not looked at again
+        snapshotService.stop();
+    }
+
+    private WeatherService weatherService() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SharedCacheStore> noSharedStore = mock(ObjectProvider.class);
+        WeatherService weatherService = new WeatherService(
+                new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0),
+                new CellCacheFactory(new ObjectMapper(), noSharedStore, 30, 3600),
+                300, 2000, 1000, 4, 64, 8);
+        weatherServices.add(weatherService);
+        return weatherService;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<DeliveryRoute>> routesCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static DeliveryRoute route() {
+        return DeliveryRoute.builder()
+                .routeId("route1")
+                .name("Downtown to Capitol Hill")
+                .description("Urban delivery route")
+                .distanceMiles(3.2)
+                .estimatedMinutes(25)
+                .riskLevel(7)
+                .weatherConditions("Heavy Rain")
+                .supplier("Acme")
+                .affectedProducts(List.of("Produce", "Dairy"))
+                .waypoints(List.of(
+                        RouteWaypoint.builder().latitude(LATITUDE).longitude(LONGITUDE)
+                                .name("Pike Place").sequenceNumber(0).build(),
+                        RouteWaypoint.builder().latitude(47.6205).longitude(-122.3212)
+                                .sequenceNumber(1).riskPoint(true).localRiskLevel(8).build()))
+                .riskFactors(List.of(RiskFactor.builder()
+                        .name("Rainfall").description("Expected rainfall").impactLevel(6).weight(0.4).build()))
+                // Snapshots keep times to the millisecond
+                .weatherRetrievalTime(LocalDateTime.of(2026, 10, 19, 5, 30, 0, 123_000_000))
+                .weatherStale(true)
+                .build();
+    }
+}
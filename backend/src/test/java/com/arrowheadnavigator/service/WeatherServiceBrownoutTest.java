@@ -0,0 +1,96 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.CellCacheFactory;
+import com.arrowheadnavigator.model.WeatherData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives WeatherService against the fault-injecting weather.gov stub, checking that
+ * cached cells keep being served within the upstream timeout during a brownout.
+ */
+class WeatherServiceBrownoutTest {
+
+    private static final long TIMEOUT_MILLIS = 200;
+    private static final long STUB_LATENCY_MILLIS = 2000;
+
+    private static final double LATITUDE = 47.6062;
+    private static final double LONGITUDE = -122.3321;
+
+    private NwsWeatherClient weatherClient;
+    private WeatherService weatherService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws InterruptedException {
+        weatherClient = new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0);
+        CellCacheFactory cellCacheFactory = new CellCacheFactory(
+                new ObjectMapper(), mock(ObjectProvider.class), 30, 3600);
+        // Nothing is ever fresh, so every lookup of a cached cell starts a refresh
+        weatherService = new WeatherService(weatherClient, cellCacheFactory, 0, TIMEOUT_MILLIS, 1000, 4, 64, 8);
+
+        weatherService.getCurrentWeather(LATITUDE, LONGITUDE);
+        Thread.sleep(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherService.shutdown();
+    }
+
+    @Test
+    void slowUpstreamServesCachedCellsWithoutWaiting() {
+        weatherClient.setFaults(STUB_LATENCY_MILLIS, 0.0);
+
+        for (int i = 0; i < 20; i++) {
+            assertServedStaleWithinTimeout();
+        }
+
+        // A cell that was never fetched waits for the timeout, not for the slow upstream
+        long start = System.nanoTime();
+        assertThrows(WeatherUnavailableException.class, () -> weatherService.getCurrentWeather(45.5, -122.6));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis < STUB_LATENCY_MILLIS / 2, "cold lookup took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void openBreakerServesCachedCellsAndFailsColdCellsFast() {
+        weatherClient.setFaults(0, 1.0);
+
+        // Enough failed cold lookups to open the breaker
+        for (int i = 0; i < 12; i++) {
+            double latitude = 45.05 + i * 0.1;
+            assertThrows(WeatherUnavailableException.class, () -> weatherService.getCurrentWeather(latitude, -121.5));
+        }
+        WeatherUnavailableException rejected = assertThrows(WeatherUnavailableException.class,
+                () -> weatherService.getCurrentWeather(46.5, -120.5));
+        assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+
+        // Slow as well as failing, in case anything still reaches the stub
+        weatherClient.setFaults(STUB_LATENCY_MILLIS, 1.0);
+        for (int i = 0; i < 20; i++) {
+            assertServedStaleWithinTimeout();
+        }
+    }
+
+    private void assertServedStaleWithinTimeout() {
+        long start = System.nanoTime();
+        WeatherData weather = weatherService.getCurrentWeather(LATITUDE, LONGITUDE);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(weather.isStale(), "cached weather should be flagged stale");
+        assertTrue(elapsedMillis < TIMEOUT_MILLIS, "stale lookup took " + elapsedMillis + "ms");
+    }
+}
@@ -0,0 +1,174 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.cache.CellCacheFactory;
+import com.arrowheadnavigator.cache.LocalSharedCacheStore;
+import com.arrowheadnavigator.cache.SharedCacheStore;
+import com.arrowheadnavigator.model.WeatherData;
+import com.arrowheadnavigator.util.GeoCell;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WeatherServiceTest {
+
+    private static final double LATITUDE = 47.6062;
+    private static final double LONGITUDE = -122.3321;
+    private static final long CELL = GeoCell.key(LATITUDE, LONGITUDE);
+
+    private WeatherService weatherService;
+    private final List<Long> invalidated = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SharedCacheStore> noSharedStore = mock(ObjectProvider.class);
+        weatherService = new WeatherService(
+                new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0),
+                new CellCacheFactory(new ObjectMapper(), noSharedStore, 30, 3600),
+                300, 2000, 1000, 4, 64, 8);
+        weatherService.addFloodRiskInvalidationListener(invalidated::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherService.shutdown();
+    }
+
+    @Test
+    void hourlyFetchLeavesFloodRiskInPlace() {
+        int risk = weatherService.calculateFloodRisk(LATITUDE, LONGITUDE);
+        invalidated.clear();
+
+        weatherService.getHourlyRainfall(LATITUDE, LONGITUDE, 24);
+
+        assertEquals(risk, weatherService.cachedFloodRisk(LATITUDE, LONGITUDE));
+        assertEquals(List.of(), invalidated);
+    }
+
+    @Test
+    void currentWeatherFetchInvalidatesFloodRisk() {
+        weatherService.floodRiskCache().put(CELL, 4, System.currentTimeMillis());
+
+        weatherService.getCurrentWeather(LATITUDE, LONGITUDE);
+
+        assertNull(weatherService.cachedFloodRisk(LATITUDE, LONGITUDE));
+        assertEquals(List.of(CELL), invalidated);
+    }
+
+    @Test
+    void sharedTierIsReadOffTheCallingThread() {
+        Set<Thread> sharedReaders = ConcurrentHashMap.newKeySet();
+        LocalSharedCacheStore store = new LocalSharedCacheStore() {
+            @Override
+            public String get(String key) {
+                sharedReaders.add(Thread.currentThread());
+                return super.get(key);
+            }
+        };
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        WeatherService fetching = replica(store);
+        WeatherService reading = replica(store, 2000, 4, upstreamCalls);
+        try {
+            WeatherData fetched = fetching.getCurrentWeather(LATITUDE, LONGITUDE);
+            sharedReaders.clear();
+
+            WeatherData shared = reading.getCurrentWeatherAsync(LATITUDE, LONGITUDE).join();
+
+            assertEquals(fetched.getRecentRainfallInches(), shared.getRecentRainfallInches());
+            assertEquals(0, upstreamCalls.get());
+            assertFalse(sharedReaders.isEmpty());
+            assertFalse(sharedReaders.contains(Thread.currentThread()));
+        } finally {
+            fetching.shutdown();
+            reading.shutdown();
+        }
+    }
+
+    @Test
+    void contendedCellIsServedFromTheLockHolder() {
+        LocalSharedCacheStore store = new LocalSharedCacheStore();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        WeatherService holder = replica(store, 2000, 4, new AtomicInteger());
+        WeatherService waiting = replica(store, 2000, 4, upstreamCalls);
+        try {
+            store.tryLock(currentWeatherLock(), Duration.ofSeconds(10));
+            CompletableFuture<WeatherData> lookup = waiting.getCurrentWeatherAsync(LATITUDE, LONGITUDE);
+
+            WeatherData shared = new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0)
+                    .fetchCurrentWeather(LATITUDE, LONGITUDE);
+            holder.currentWeatherCache().put(CELL, shared, System.currentTimeMillis());
+
+            assertEquals(shared.getRecentRainfallInches(), lookup.join().getRecentRainfallInches());
+            assertEquals(0, upstreamCalls.get());
+        } finally {
+            holder.shutdown();
+            waiting.shutdown();
+        }
+    }
+
+    @Test
+    void contendedCellFailsWithoutFetchingAndHoldsNoPoolThread() {
+        LocalSharedCacheStore store = new LocalSharedCacheStore();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        // One upstream thread, so a wait that held it would block the second cell
+        WeatherService waiting = replica(store, 400, 1, upstreamCalls);
+        try {
+            store.tryLock(currentWeatherLock(), Duration.ofSeconds(10));
+            CompletableFuture<WeatherData> contended = waiting.getCurrentWeatherAsync(LATITUDE, LONGITUDE);
+
+            assertNotNull(waiting.getCurrentWeather(LATITUDE + 1, LONGITUDE + 1));
+
+            assertThrows(WeatherUnavailableException.class,
+                    () -> waiting.getCurrentWeather(LATITUDE, LONGITUDE));
+            assertTrue(contended.isCompletedExceptionally());
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            waiting.shutdown();
+        }
+    }
+
+    private static String currentWeatherLock() {
+        return "arrowhead:weather-current:" + CELL + ":lock";
+    }
+
+    private static WeatherService replica(SharedCacheStore store) {
+        return replica(store, 2000, 4, new AtomicInteger());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeatherService replica(SharedCacheStore store, long timeoutMillis, int maxConcurrent,
+                                          AtomicInteger upstreamCalls) {
+        ObjectProvider<SharedCacheStore> sharedStore = mock(ObjectProvider.class);
+        when(sharedStore.getIfAvailable()).thenReturn(store);
+        NwsWeatherClient weatherClient = new NwsWeatherClient(new RestTemplate(), "http://localhost", false, 0, 0.0) {
+            @Override
+            public WeatherData fetchCurrentWeather(double latitude, double longitude) {
+                upstreamCalls.incrementAndGet();
+                return super.fetchCurrentWeather(latitude, longitude);
+            }
+        };
+        return new WeatherService(weatherClient,
+                new CellCacheFactory(new ObjectMapper().findAndRegisterModules(), sharedStore, 30, 3600),
+                300, timeoutMillis, 1000, maxConcurrent, 64, 8);
+    }
+}
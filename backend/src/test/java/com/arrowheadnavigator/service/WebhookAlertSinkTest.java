@@ -0,0 +1,43 @@
+package com.arrowheadnavigator.service;
+
+import com.arrowheadnavigator.model.AlertSubscription;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebhookAlertSinkTest {
+
+    private final WebhookAlertSink sink = new WebhookAlertSink(
+            new RestTemplateBuilder(), 1000, List.of("hooks.example.com", " .dispatch.example.org "));
+
+    @Test
+    void acceptsAllowedHostsAndSubdomains() {
+        assertDoesNotThrow(() -> sink.validate(webhook("https://hooks.example.com/alerts")));
+        assertDoesNotThrow(() -> sink.validate(webhook("http://HOOKS.example.com:8080/alerts")));
+        assertDoesNotThrow(() -> sink.validate(webhook("https://ops.dispatch.example.org/in")));
+    }
+
+    @Test
+    void rejectsOtherHostsAndSchemes() {
+        for (String url : new String[]{
+                null,
+                "not a url",
+                "ftp://hooks.example.com/alerts",
+                "file:///etc/passwd",
+                "http://169.254.169.254/latest/meta-data",
+                "http://localhost:8080/api/admin",
+                "https://hooks.example.com.evil.net/alerts",
+                "https://user@hooks.example.com/alerts",
+                "https://dispatch.example.org/in"}) {
+            assertThrows(IllegalArgumentException.class, () -> sink.validate(webhook(url)), String.valueOf(url));
+        }
+    }
+
+    private static AlertSubscription webhook(String url) {
+        return AlertSubscription.builder().sink("webhook").webhookUrl(url).build();
+    }
+}
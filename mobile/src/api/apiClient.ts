@@ -111,7 +111,16 @@ export const weatherApi = {
     },
 };
 
+// API functions for flood risk map tiles
+export const riskApi = {
+    /**
+     * URL template for flood risk heatmap tiles, for use with a map tile overlay
+     */
+    tileUrlTemplate: `${API_BASE_URL}/risk/tiles/{z}/{x}/{y}`,
+};
+
 export default {
     routes: routeApi,
     weather: weatherApi,
+    risk: riskApi,
 };
\ No newline at end of file
@@ -1,10 +1,11 @@
 import React, { useState, useEffect } from 'react';
 import { View, StyleSheet, Text, ActivityIndicator, TouchableOpacity } from 'react-native';
-import MapView, { Marker, Polyline, PROVIDER_GOOGLE } from 'react-native-maps';
+import MapView, { Marker, Polyline, UrlTile, PROVIDER_GOOGLE } from 'react-native-maps';
 import { useNavigation } from '@react-navigation/native';
 import { StackNavigationProp } from '@react-navigation/stack';
 import { RootStackParamList } from '../../App';
 import * as Location from 'expo-location';
+import { riskApi } from '../api/apiClient';
 
 // This would be replaced with actual API calls in the future
 import { sampleRoutes } from '../data/sampleData';
@@ -103,6 +104,13 @@ const MapScreen: React.FC = () => {
                         longitudeDelta: 0.0421,
                     }}
                 >
+                    {/* Flood risk heatmap overlay */}
+                    <UrlTile
+                        urlTemplate={riskApi.tileUrlTemplate}
+                        maximumZ={18}
+                        zIndex={-1}
+                    />
+
                     {/* Current location marker */}
                     <Marker
                         coordinate={{